@@ -0,0 +1,20 @@
+-- Indexes for GET /api/v1/users/search (UserService.searchUsers).
+--
+-- The search matches lower(column) COLLATE "C" against a bounded range plus
+-- LIKE 'prefix%', ordered by (lower(column) COLLATE "C", id). Byte-order
+-- collation lets the planner use these indexes for the prefix range, the
+-- ORDER BY and the (value, id) keyset continuation, so each page is a single
+-- index range scan whatever the database's default collation.
+--
+-- CONCURRENTLY avoids blocking writes while the index builds; it cannot run
+-- inside a transaction, so apply this file with autocommit on, e.g.
+--   psql "$DATABASE_URL" -f db/migrations/001_user_prefix_search_indexes.sql
+-- If a build is interrupted, drop the INVALID index and run the file again.
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS user_username_prefix_idx
+    ON "User" ((lower(username)) COLLATE "C", id);
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS user_email_prefix_idx
+    ON "User" ((lower(email)) COLLATE "C", id);
+
+ANALYZE "User";
@@ -0,0 +1,28 @@
+package com.coniungo.app.bench;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Entry point of {@code benchmarks.jar}: JMH's own main, with the GC profiler
+ * on by default so every run reports allocation rate next to throughput.
+ * <p>
+ * Usage: {@code java -jar target/benchmarks.jar [jmh options] [benchmark regex]}.
+ */
+public final class BenchmarkMain {
+
+    private BenchmarkMain() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        List<String> options = new ArrayList<>(Arrays.asList(args));
+
+        if (!options.contains("-prof")) {
+            options.add(0, "-prof");
+            options.add(1, "gc");
+        }
+
+        org.openjdk.jmh.Main.main(options.toArray(new String[0]));
+    }
+}
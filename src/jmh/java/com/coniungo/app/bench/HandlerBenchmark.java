@@ -0,0 +1,82 @@
+package com.coniungo.app.bench;
+
+import com.amazonaws.services.lambda.runtime.Context;
+import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyRequestEvent;
+import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyResponseEvent;
+import com.coniungo.app.handlers.GetAllUsersHandler;
+import com.coniungo.app.handlers.GetUserHandler;
+import com.coniungo.app.service.UserService;
+import com.coniungo.app.service.impl.UserServiceImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Whole handler invocations, from request event to compressed response,
+ * against an {@link InMemoryUserDatabase}: everything the container does
+ * per request except the network and the database itself.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class HandlerBenchmark {
+
+    private static final int USERS = 10_000;
+
+    private GetUserHandler getUser;
+    private GetAllUsersHandler getAllUsers;
+    private Context context;
+
+    private APIGatewayProxyRequestEvent userRequest;
+    private APIGatewayProxyRequestEvent pageRequest;
+    private APIGatewayProxyRequestEvent streamedPageRequest;
+
+    @Setup
+    public void setUp() {
+        InMemoryUserDatabase database = new InMemoryUserDatabase(USERS);
+        UserService userService = new UserServiceImpl(database, null, Runtime.getRuntime().availableProcessors());
+
+        getUser = new GetUserHandler(userService);
+        getAllUsers = new GetAllUsersHandler(userService);
+        context = Stubs.context();
+
+        userRequest = request(Map.of("id", "42"));
+        pageRequest = request(Map.of("pageSize", "50"));
+        streamedPageRequest = request(Map.of("pageSize", "1000"));
+    }
+
+    private static APIGatewayProxyRequestEvent request(Map<String, String> query) {
+        return new APIGatewayProxyRequestEvent()
+                .withHttpMethod("GET")
+                .withHeaders(Map.of("Accept-Encoding", "gzip"))
+                .withQueryStringParameters(query);
+    }
+
+    @Benchmark
+    public APIGatewayProxyResponseEvent getUser() {
+        return getUser.handleRequest(userRequest, context);
+    }
+
+    @Benchmark
+    public APIGatewayProxyResponseEvent getAllUsersPage() {
+        return getAllUsers.handleRequest(pageRequest, context);
+    }
+
+    @Benchmark
+    public APIGatewayProxyResponseEvent getAllUsersStreamed() {
+        return getAllUsers.handleRequest(streamedPageRequest, context);
+    }
+}
@@ -0,0 +1,214 @@
+package com.coniungo.app.bench;
+
+import com.amazonaws.services.lambda.runtime.LambdaLogger;
+import com.coniungo.app.dao.BulkLoadResult;
+import com.coniungo.app.dao.DatabaseService;
+import com.coniungo.app.dao.Page;
+import com.coniungo.app.model.User;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * Read-only {@link DatabaseService} over an in-memory {@code "User"} table.
+ * <p>
+ * Rows are handed to the caller's {@link RowMapper} through a stub
+ * {@link ResultSet}, so the mapping work matches a real query and only the
+ * network and database time are missing.
+ */
+public class InMemoryUserDatabase implements DatabaseService<User> {
+
+    private static final String[] LABELS = {"id", "username", "email"};
+
+    private final NavigableMap<Long, Object[]> rows = new TreeMap<>();
+
+    public InMemoryUserDatabase(int users) {
+        for (long id = 1; id <= users; id++) {
+            rows.put(id, new Object[]{id, "user" + id, "user" + id + "@example.com"});
+        }
+    }
+
+    private static List<User> map(List<Object[]> selected, int limit, RowMapper<User> mapper) {
+        List<User> result = new ArrayList<>(Math.min(selected.size(), limit));
+        ResultSet rs = Stubs.resultSet(LABELS, selected);
+
+        try {
+            while (result.size() < limit && rs.next()) {
+                result.add(mapper.mapRow(rs));
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("Read failed", e);
+        }
+
+        return result;
+    }
+
+    private List<Object[]> after(Object lastKey, int limit) {
+        Collection<Object[]> tail = lastKey == null
+                ? rows.values()
+                : rows.tailMap((Long) lastKey, false).values();
+
+        List<Object[]> selected = new ArrayList<>(Math.min(tail.size(), limit));
+
+        for (Object[] row : tail) {
+            if (selected.size() == limit) {
+                break;
+            }
+            selected.add(row);
+        }
+
+        return selected;
+    }
+
+    @Override
+    public User read(String tableName, String primaryKeyColumn, Object primaryKeyValue, RowMapper<User> rowMapper) {
+        Object[] row = rows.get(((Number) primaryKeyValue).longValue());
+        return row == null ? null : map(List.<Object[]>of(row), 1, rowMapper).get(0);
+    }
+
+    @Override
+    public List<User> readByKeys(String tableName, String keyColumn, String keyType, Collection<?> keys, RowMapper<User> rowMapper) {
+        List<Object[]> selected = new ArrayList<>(keys.size());
+
+        for (Object key : keys) {
+            Object[] row = rows.get(((Number) key).longValue());
+            if (row != null) {
+                selected.add(row);
+            }
+        }
+
+        return map(selected, selected.size(), rowMapper);
+    }
+
+    @Override
+    public Page<User> readPaginated(String tableName, int pageSize, int pageNumber, RowMapper<User> rowMapper) {
+        List<Object[]> all = new ArrayList<>(rows.values());
+        int from = Math.min((pageNumber - 1) * pageSize, all.size());
+        int to = Math.min(from + pageSize + 1, all.size());
+
+        return page(map(all.subList(from, to), pageSize + 1, rowMapper), pageSize);
+    }
+
+    @Override
+    public Page<User> readAfter(String tableName, String keyColumn, Object lastKey, int pageSize, RowMapper<User> rowMapper) {
+        return page(map(after(lastKey, pageSize + 1), pageSize + 1, rowMapper), pageSize);
+    }
+
+    @Override
+    public Page<User> readByPrefix(String tableName, String column, String prefix, String keyColumn,
+                                   Object lastValue, Object lastKey, int pageSize, RowMapper<User> rowMapper) {
+        throw new UnsupportedOperationException("Prefix search is not benchmarked");
+    }
+
+    private static Page<User> page(List<User> rows, int pageSize) {
+        boolean hasMore = rows.size() > pageSize;
+
+        if (hasMore) {
+            rows.remove(rows.size() - 1);
+        }
+
+        return new Page<>(rows, hasMore);
+    }
+
+    @Override
+    public void streamAfter(String tableName, String keyColumn, Object lastKey, int limit, int fetchSize,
+                            RowMapper<User> mapper, RowCallback<User> callback) {
+        ResultSet rs = Stubs.resultSet(LABELS, after(lastKey, limit > 0 ? limit : Integer.MAX_VALUE));
+
+        try {
+            while (rs.next()) {
+                callback.accept(mapper.mapRow(rs));
+            }
+        } catch (Exception e) {
+            throw new RuntimeException("Streaming read failed", e);
+        }
+    }
+
+    @Override
+    public long estimateRowCount(String tableName) {
+        return rows.size();
+    }
+
+    @Override
+    public long countRows(String tableName) {
+        return rows.size();
+    }
+
+    @Override
+    public Object readColumnsByCondition(String tableName, String columns, String whereClause, Object[] whereParams) {
+        throw new UnsupportedOperationException("Read-only fake");
+    }
+
+    @Override
+    public Object readColumnsByCondition(Connection conn, String tableName, String columns, String whereClause, Object[] whereParams) {
+        throw new UnsupportedOperationException("Read-only fake");
+    }
+
+    @Override
+    public void insert(String tableName, Map<String, Object> values, LambdaLogger logger) {
+        throw new UnsupportedOperationException("Read-only fake");
+    }
+
+    @Override
+    public void insert(Connection conn, String tableName, Map<String, Object> values, LambdaLogger logger) {
+        throw new UnsupportedOperationException("Read-only fake");
+    }
+
+    @Override
+    public BulkLoadResult insertBatch(String tableName, List<Map<String, Object>> rows) {
+        throw new UnsupportedOperationException("Read-only fake");
+    }
+
+    @Override
+    public BulkLoadResult insertBatch(Connection conn, String tableName, List<Map<String, Object>> rows) {
+        throw new UnsupportedOperationException("Read-only fake");
+    }
+
+    @Override
+    public BulkLoadResult upsert(String tableName, String conflictColumn, List<Map<String, Object>> rows) {
+        throw new UnsupportedOperationException("Read-only fake");
+    }
+
+    @Override
+    public BulkLoadResult upsert(Connection conn, String tableName, String conflictColumn, List<Map<String, Object>> rows) {
+        throw new UnsupportedOperationException("Read-only fake");
+    }
+
+    @Override
+    public BulkLoadResult copyIn(String tableName, List<String> columns, Iterator<Object[]> rows) {
+        throw new UnsupportedOperationException("Read-only fake");
+    }
+
+    @Override
+    public BulkLoadResult copyIn(Connection conn, String tableName, List<String> columns, Iterator<Object[]> rows) {
+        throw new UnsupportedOperationException("Read-only fake");
+    }
+
+    @Override
+    public void update(String tableName, Map<String, Object> values, String whereClause, Object... whereParams) {
+        throw new UnsupportedOperationException("Read-only fake");
+    }
+
+    @Override
+    public void update(Connection conn, String tableName, Map<String, Object> values, String whereClause, Object... whereParams) {
+        throw new UnsupportedOperationException("Read-only fake");
+    }
+
+    @Override
+    public void delete(String tableName, String whereClause, Object... whereParams) {
+        throw new UnsupportedOperationException("Read-only fake");
+    }
+
+    @Override
+    public void withTransaction(TransactionCallback callback) {
+        throw new UnsupportedOperationException("Read-only fake");
+    }
+}
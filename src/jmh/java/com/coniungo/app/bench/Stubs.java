@@ -0,0 +1,161 @@
+package com.coniungo.app.bench;
+
+import com.amazonaws.services.lambda.runtime.ClientContext;
+import com.amazonaws.services.lambda.runtime.CognitoIdentity;
+import com.amazonaws.services.lambda.runtime.Context;
+import com.amazonaws.services.lambda.runtime.LambdaLogger;
+
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.List;
+
+/**
+ * Minimal stand-ins for the JDBC and Lambda runtime types, so the
+ * benchmarks run offline and measure only this project's code.
+ */
+public final class Stubs {
+
+    private Stubs() {
+    }
+
+    /**
+     * A forward-only {@link ResultSet} over the given rows, answering both
+     * index and label reads; like a real one it starts before the first row.
+     */
+    public static ResultSet resultSet(String[] labels, List<Object[]> rows) {
+        int[] position = {-1};
+
+        return (ResultSet) Proxy.newProxyInstance(
+                ResultSet.class.getClassLoader(),
+                new Class<?>[]{ResultSet.class},
+                (proxy, method, args) -> {
+                    Object value = switch (method.getName()) {
+                        case "getLong", "getString", "getObject", "getInt" ->
+                                column(labels, rows.get(position[0]), args[0]);
+                        case "next" -> ++position[0] < rows.size();
+                        case "wasNull", "isClosed" -> false;
+                        case "close" -> null;
+                        default -> throw new UnsupportedOperationException(method.getName());
+                    };
+
+                    if (method.getReturnType() == long.class) {
+                        return value == null ? 0L : ((Number) value).longValue();
+                    }
+                    if (method.getReturnType() == int.class) {
+                        return value == null ? 0 : ((Number) value).intValue();
+                    }
+                    return value;
+                });
+    }
+
+    private static Object column(String[] labels, Object[] row, Object key) {
+        if (key instanceof Integer index) {
+            return row[index - 1];
+        }
+
+        for (int i = 0; i < labels.length; i++) {
+            if (labels[i].equalsIgnoreCase((String) key)) {
+                return row[i];
+            }
+        }
+
+        throw new IllegalArgumentException("No column " + key);
+    }
+
+    /**
+     * A {@link Connection} whose statements accept any binds and report one row updated.
+     */
+    public static Connection connection() {
+        PreparedStatement statement = (PreparedStatement) Proxy.newProxyInstance(
+                PreparedStatement.class.getClassLoader(),
+                new Class<?>[]{PreparedStatement.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "executeUpdate" -> 1;
+                    case "setObject", "setInt", "setLong", "setString", "close" -> null;
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+
+        return (Connection) Proxy.newProxyInstance(
+                Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "prepareStatement" -> statement;
+                    case "close" -> null;
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+    }
+
+    public static Context context() {
+        return new StubContext();
+    }
+
+    private static final class StubContext implements Context {
+
+        private static final LambdaLogger logger = new LambdaLogger() {
+            @Override
+            public void log(String message) {
+            }
+
+            @Override
+            public void log(byte[] message) {
+            }
+        };
+
+        @Override
+        public String getAwsRequestId() {
+            return "benchmark";
+        }
+
+        @Override
+        public String getLogGroupName() {
+            return "benchmark";
+        }
+
+        @Override
+        public String getLogStreamName() {
+            return "benchmark";
+        }
+
+        @Override
+        public String getFunctionName() {
+            return "benchmark";
+        }
+
+        @Override
+        public String getFunctionVersion() {
+            return "$LATEST";
+        }
+
+        @Override
+        public String getInvokedFunctionArn() {
+            return "arn:aws:lambda:local:000000000000:function:benchmark";
+        }
+
+        @Override
+        public CognitoIdentity getIdentity() {
+            return null;
+        }
+
+        @Override
+        public ClientContext getClientContext() {
+            return null;
+        }
+
+        @Override
+        public int getRemainingTimeInMillis() {
+            return Integer.MAX_VALUE;
+        }
+
+        @Override
+        public int getMemoryLimitInMB() {
+            return 512;
+        }
+
+        @Override
+        public LambdaLogger getLogger() {
+            return logger;
+        }
+    }
+}
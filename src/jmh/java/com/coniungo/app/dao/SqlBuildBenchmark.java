@@ -0,0 +1,88 @@
+package com.coniungo.app.dao;
+
+import com.coniungo.app.bench.Stubs;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * SQL construction and binding for {@code insert}/{@code update}: the cached
+ * {@link SqlTemplates} lookup, the same statement rebuilt on every call as
+ * {@code PgDataService} used to, and the full call against a stub connection.
+ * Lives in the DAO package to reach the package-private templates.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SqlBuildBenchmark {
+
+    private static final String TABLE = "\"User\"";
+
+    private final PgDataService<Object> dataService = new PgDataService<>();
+
+    private Map<String, Object> values;
+    private Connection connection;
+
+    @Setup
+    public void setUp() {
+        values = new LinkedHashMap<>();
+        values.put("username", "benchmark");
+        values.put("email", "benchmark@example.com");
+        values.put("created_by", "jmh");
+
+        connection = Stubs.connection();
+    }
+
+    @Benchmark
+    public SqlTemplates.Template insertTemplate() {
+        return SqlTemplates.insert(TABLE, values.keySet());
+    }
+
+    @Benchmark
+    public SqlTemplates.Template updateTemplate() {
+        return SqlTemplates.update(TABLE, values.keySet(), "id=?");
+    }
+
+    @Benchmark
+    public String insertRebuilt() {
+        StringBuilder cols = new StringBuilder();
+        StringBuilder qms = new StringBuilder();
+
+        for (String col : values.keySet()) {
+            if (cols.length() > 0) {
+                cols.append(",");
+                qms.append(",");
+            }
+            cols.append(col);
+            qms.append("?");
+        }
+
+        return "INSERT INTO " + TABLE + " (" + cols + ") VALUES (" + qms + ")";
+    }
+
+    @Benchmark
+    public void insertBound() throws SQLException {
+        dataService.insert(connection, TABLE, values, null);
+    }
+
+    @Benchmark
+    public void updateBound() throws SQLException {
+        dataService.update(connection, TABLE, values, "id=?", 42L);
+    }
+}
@@ -0,0 +1,137 @@
+package com.coniungo.app.dao;
+
+import com.coniungo.app.mappers.UserRowMapper;
+import com.coniungo.app.model.User;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@code read} and {@code insert} over one real PostgreSQL connection, set up
+ * from the {@code DB_*} variables with the driver properties
+ * {@link PgDataService} uses. {@code cached} reuses the {@link SqlTemplates}
+ * text, so pgjdbc keeps the statement prepared on the server after its first
+ * execution; {@code fresh} makes every call's text unique, so each one is
+ * parsed and planned again, as when SQL was rebuilt per call. The difference
+ * in time per call is the parse/plan cost the templates remove.
+ * <p>
+ * Works on a temporary table, so it needs a database but leaves no trace in
+ * it. Without {@code DB_HOST} and {@code DB_NAME} its setup fails; exclude it
+ * with {@code -e Statement} to run the offline benchmarks only.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StatementBenchmark {
+
+    private static final String TABLE = "jmh_statement_user";
+    private static final int ROWS = 10_000;
+
+    @Param({"cached", "fresh"})
+    public String statements;
+
+    private Connection connection;
+
+    private String readSql;
+    private SqlTemplates.Template insertTemplate;
+    private Map<String, Object> values;
+
+    private long calls;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        DbSettings settings;
+
+        try {
+            settings = DbSettings.fromEnv();
+        } catch (IllegalStateException e) {
+            throw new IllegalStateException("StatementBenchmark needs DB_HOST, DB_NAME, DB_USER and DB_PASSWORD", e);
+        }
+
+        Properties props = new Properties();
+        props.putAll(settings.driverProperties);
+        props.setProperty("user", settings.user);
+        props.setProperty("password", settings.password);
+
+        connection = DriverManager.getConnection(settings.jdbcUrl, props);
+
+        try (Statement st = connection.createStatement()) {
+            st.execute("CREATE TEMP TABLE " + TABLE + " (id bigserial PRIMARY KEY, username text, email text)");
+            st.execute("INSERT INTO " + TABLE + " (username, email)"
+                    + " SELECT 'user' || n, 'user' || n || '@example.com' FROM generate_series(1, " + ROWS + ") n");
+            st.execute("ANALYZE " + TABLE);
+        }
+
+        values = new LinkedHashMap<>();
+        values.put("username", "benchmark");
+        values.put("email", "benchmark@example.com");
+
+        readSql = SqlTemplates.read(TABLE, UserRowMapper.INSTANCE.projection(), "id");
+        insertTemplate = SqlTemplates.insert(TABLE, values.keySet());
+    }
+
+    @TearDown(Level.Iteration)
+    public void trimInserts() throws SQLException {
+        try (Statement st = connection.createStatement()) {
+            st.execute("DELETE FROM " + TABLE + " WHERE id > " + ROWS);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        connection.close();
+    }
+
+    @Benchmark
+    public User read() throws SQLException {
+        try (PreparedStatement ps = connection.prepareStatement(text(readSql))) {
+            ps.setLong(1, 1 + calls % ROWS);
+
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() ? UserRowMapper.INSTANCE.mapRow(rs) : null;
+            }
+        }
+    }
+
+    @Benchmark
+    public int insert() throws SQLException {
+        try (PreparedStatement ps = connection.prepareStatement(text(insertTemplate.sql))) {
+            int i = 1;
+
+            for (String col : insertTemplate.columns) {
+                ps.setObject(i++, values.get(col));
+            }
+
+            return ps.executeUpdate();
+        }
+    }
+
+    private String text(String sql) {
+        calls++;
+        return "fresh".equals(statements) ? sql + " /* " + calls + " */" : sql;
+    }
+}
@@ -0,0 +1,93 @@
+package com.coniungo.app.handlers;
+
+import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyRequestEvent;
+import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyResponseEvent;
+import com.coniungo.app.dto.UserDTO;
+import com.coniungo.app.json.ResponseWriter;
+import com.coniungo.app.model.ApiResponse;
+import com.coniungo.app.model.PageInfo;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * CPU against bytes for {@link ResponseCompression} on user pages of typical
+ * sizes: time per response here, and the raw and compressed body sizes
+ * printed once per trial. {@code identity} is the uncompressed baseline.
+ * The level comes from {@code COMPRESSION_LEVEL}, as in the functions.
+ * Lives in the handler package to reach the package-private compressor.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CompressionBenchmark {
+
+    @Param({"10", "50", "500"})
+    public int users;
+
+    @Param({"identity", "gzip", "deflate"})
+    public String encoding;
+
+    private APIGatewayProxyRequestEvent request;
+    private String body;
+
+    @Setup
+    public void setUp() {
+        List<UserDTO> page = new ArrayList<>(users);
+
+        for (long id = 1; id <= users; id++) {
+            page.add(UserDTO.builder().id(id).username("user" + id).email("user" + id + "@example.com").build());
+        }
+
+        body = ResponseWriter.toJson(ApiResponse.<List<UserDTO>>builder()
+                .statusCode(200)
+                .isSuccessful(true)
+                .message("Users retrieved successfully")
+                .data(page)
+                .nextCursor("djEKNTA")
+                .pagination(PageInfo.builder().pageSize(users).hasMore(true).totalEstimate(100_000L).build())
+                .build());
+
+        request = new APIGatewayProxyRequestEvent()
+                .withHttpMethod("GET")
+                .withHeaders(Map.of("Accept-Encoding", encoding));
+
+        APIGatewayProxyResponseEvent sample = compress();
+        int raw = body.getBytes(StandardCharsets.UTF_8).length;
+        int wire = Boolean.TRUE.equals(sample.getIsBase64Encoded())
+                ? Base64.getDecoder().decode(sample.getBody()).length
+                : raw;
+
+        System.out.printf("%n%d users, %s: %,d bytes raw, %,d bytes on the wire (%.1f%%), %,d bytes base64 from Lambda%n",
+                users, encoding, raw, wire, 100.0 * wire / raw, sample.getBody().length());
+    }
+
+    @Benchmark
+    public APIGatewayProxyResponseEvent compress() {
+        APIGatewayProxyResponseEvent response = new APIGatewayProxyResponseEvent()
+                .withStatusCode(200)
+                .withHeaders(new HashMap<>(Map.of("Content-Type", "application/json")))
+                .withBody(body);
+
+        return ResponseCompression.apply(request, response);
+    }
+}
@@ -0,0 +1,161 @@
+package com.coniungo.app.loadtest;
+
+import com.coniungo.app.dao.AcquireMetrics;
+import com.coniungo.app.dao.ConnectionProvider;
+import com.coniungo.app.dao.PoolStats;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+
+/**
+ * In-memory H2 database in PostgreSQL mode, seeded with a {@code "User"}
+ * table, standing in for RDS.
+ * <p>
+ * Every statement the user endpoints issue runs unchanged, including
+ * {@code = ANY(?)} and keyset/offset paging. The planner row estimate is
+ * served from a small {@code pg_class} emulation holding the exact count.
+ * A second instance can stand in for a reader endpoint, answering the
+ * replication lag check with a configurable lag.
+ * Latencies exclude the network, so compare runs with each other rather
+ * than with production numbers.
+ */
+public final class EmbeddedDatabase implements ConnectionProvider {
+
+    private static final String URL_OPTIONS =
+            ";MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH;DB_CLOSE_DELAY=-1";
+
+    // Lag reported by replica stand-ins
+    private static volatile long replicaLagMillis;
+
+    private final HikariDataSource dataSource;
+    private final AcquireMetrics metrics = new AcquireMetrics();
+
+    public EmbeddedDatabase(int poolSize) {
+        this("loadtest", poolSize);
+    }
+
+    public EmbeddedDatabase(String name, int poolSize) {
+        HikariConfig config = new HikariConfig();
+        config.setJdbcUrl("jdbc:h2:mem:" + name + URL_OPTIONS);
+        config.setUsername("sa");
+        config.setMaximumPoolSize(poolSize);
+        config.setMinimumIdle(poolSize);
+
+        dataSource = new HikariDataSource(config);
+    }
+
+    /**
+     * Creates and fills the table with users {@code 1..users}.
+     *
+     * @return how long seeding took, in milliseconds.
+     */
+    public long seed(long users) throws SQLException {
+        long start = System.nanoTime();
+
+        try (Connection conn = dataSource.getConnection();
+             Statement st = conn.createStatement()) {
+
+            st.execute("DROP TABLE IF EXISTS \"User\"");
+            st.execute("CREATE TABLE \"User\" (id BIGINT PRIMARY KEY, username VARCHAR(255), email VARCHAR(255))");
+
+            try (PreparedStatement ps = conn.prepareStatement(
+                    "INSERT INTO \"User\" SELECT \"X\", 'user' || \"X\", 'user' || \"X\" || '@example.com' "
+                            + "FROM SYSTEM_RANGE(1, ?)")) {
+                ps.setLong(1, users);
+                ps.executeUpdate();
+            }
+
+            st.execute("CREATE ALIAS IF NOT EXISTS to_regclass FOR \"" + EmbeddedDatabase.class.getName() + ".toRegclass\"");
+            st.execute("DROP TABLE IF EXISTS pg_class");
+            st.execute("CREATE TABLE pg_class (oid VARCHAR(255) PRIMARY KEY, reltuples BIGINT)");
+
+            try (PreparedStatement ps = conn.prepareStatement("INSERT INTO pg_class VALUES ('\"User\"', ?)")) {
+                ps.setLong(1, users);
+                ps.executeUpdate();
+            }
+        }
+
+        return (System.nanoTime() - start) / 1_000_000;
+    }
+
+    /**
+     * Makes this database answer the reader lag check as a standby lagging by
+     * {@link #setReplicaLagMillis}. Call after {@link #seed}.
+     */
+    public void emulateReplica() throws SQLException {
+        String type = EmbeddedDatabase.class.getName();
+
+        try (Connection conn = dataSource.getConnection();
+             Statement st = conn.createStatement()) {
+
+            st.execute("CREATE ALIAS IF NOT EXISTS pg_is_in_recovery FOR \"" + type + ".isInRecovery\"");
+            st.execute("CREATE ALIAS IF NOT EXISTS pg_last_wal_receive_lsn FOR \"" + type + ".lastWalReceiveLsn\"");
+            st.execute("CREATE ALIAS IF NOT EXISTS pg_last_wal_replay_lsn FOR \"" + type + ".lastWalReplayLsn\"");
+            st.execute("CREATE ALIAS IF NOT EXISTS pg_last_xact_replay_timestamp FOR \"" + type + ".lastXactReplayTimestamp\"");
+        }
+    }
+
+    public static void setReplicaLagMillis(long lagMillis) {
+        replicaLagMillis = lagMillis;
+    }
+
+    public static boolean isInRecovery() {
+        return true;
+    }
+
+    public static String lastWalReceiveLsn() {
+        return replicaLagMillis > 0 ? "0/2" : "0/1";
+    }
+
+    public static String lastWalReplayLsn() {
+        return "0/1";
+    }
+
+    public static Timestamp lastXactReplayTimestamp() {
+        return new Timestamp(System.currentTimeMillis() - replicaLagMillis);
+    }
+
+    /**
+     * {@code to_regclass} stand-in: {@code pg_class} rows are keyed by the quoted name itself.
+     */
+    public static String toRegclass(String name) {
+        return name;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return dataSource.getConnection();
+    }
+
+    @Override
+    public int maxConnections() {
+        return dataSource.getMaximumPoolSize();
+    }
+
+    @Override
+    public AcquireMetrics acquireMetrics() {
+        return metrics;
+    }
+
+    @Override
+    public PoolStats poolStats() {
+        HikariPoolMXBean pool = dataSource.getHikariPoolMXBean();
+
+        return new PoolStats(
+                pool.getActiveConnections(),
+                pool.getIdleConnections(),
+                pool.getThreadsAwaitingConnection(),
+                pool.getTotalConnections());
+    }
+
+    @Override
+    public void close() {
+        dataSource.close();
+    }
+}
@@ -0,0 +1,95 @@
+package com.coniungo.app.loadtest;
+
+import com.amazonaws.services.lambda.runtime.ClientContext;
+import com.amazonaws.services.lambda.runtime.CognitoIdentity;
+import com.amazonaws.services.lambda.runtime.Context;
+import com.amazonaws.services.lambda.runtime.LambdaLogger;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lambda {@link Context} for local invocations. Log lines are counted and,
+ * only when {@code verbose}, printed; printing every line would make the
+ * console the bottleneck.
+ */
+final class FakeContext implements Context {
+
+    private static final AtomicLong requestIds = new AtomicLong();
+
+    private final String requestId = "loadtest-" + requestIds.incrementAndGet();
+    private final LambdaLogger logger;
+
+    FakeContext(boolean verbose, AtomicLong logLines) {
+        this.logger = new LambdaLogger() {
+            @Override
+            public void log(String message) {
+                logLines.incrementAndGet();
+
+                if (verbose) {
+                    System.out.println(message);
+                }
+            }
+
+            @Override
+            public void log(byte[] message) {
+                log(new String(message, StandardCharsets.UTF_8));
+            }
+        };
+    }
+
+    @Override
+    public String getAwsRequestId() {
+        return requestId;
+    }
+
+    @Override
+    public String getLogGroupName() {
+        return "/aws/lambda/loadtest";
+    }
+
+    @Override
+    public String getLogStreamName() {
+        return "loadtest";
+    }
+
+    @Override
+    public String getFunctionName() {
+        return "loadtest";
+    }
+
+    @Override
+    public String getFunctionVersion() {
+        return "$LATEST";
+    }
+
+    @Override
+    public String getInvokedFunctionArn() {
+        return "arn:aws:lambda:local:000000000000:function:loadtest";
+    }
+
+    @Override
+    public CognitoIdentity getIdentity() {
+        return null;
+    }
+
+    @Override
+    public ClientContext getClientContext() {
+        return null;
+    }
+
+    @Override
+    public int getRemainingTimeInMillis() {
+        return 20_000;
+    }
+
+    @Override
+    public int getMemoryLimitInMB() {
+        return 512;
+    }
+
+    @Override
+    public LambdaLogger getLogger() {
+        return logger;
+    }
+}
@@ -0,0 +1,319 @@
+package com.coniungo.app.loadtest;
+
+import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyRequestEvent;
+import com.coniungo.app.loadtest.TrafficMix.Scenario;
+import com.coniungo.app.server.UserApiServer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.URI;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures how {@link UserApiServer} throughput scales with cores.
+ * <p>
+ * For each core count, a {@link LoadTestServer} process is started with the
+ * JVM limited to that many processors (and pinned to that many CPUs with
+ * {@code taskset} when available), then driven over HTTP by
+ * {@code concurrency} closed-loop clients, one virtual thread each, through
+ * the same request mix as {@link LoadTestMain}. The server is stopped with
+ * SIGTERM after each run, so the report also shows how long graceful
+ * shutdown took. The clients run in this process on the same machine, so
+ * leave them some cores: scaling flattens once client and server compete.
+ * <p>
+ * Options, all {@code --name=value}: {@code cores} (powers of two up to the
+ * available processors, e.g. {@code 1,2,4}), {@code users} (100000),
+ * {@code pool} connections (16), {@code concurrency} (1000),
+ * {@code duration} and {@code warmup} in seconds (15, 5), {@code mix}
+ * ({@code get=80,page=10,cursor=10}), {@code seed} (42), {@code heap} for
+ * the server ({@code 1g}), {@code pin} (true) and {@code report}
+ * (target/http-loadtest-report.json).
+ */
+public final class HttpLoadTestMain {
+
+    private HttpLoadTestMain() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = LoadTestMain.parse(args);
+
+        List<Integer> coreCounts = parseCores(options.get("cores"));
+        long users = Long.parseLong(options.getOrDefault("users", "100000"));
+        int pool = Integer.parseInt(options.getOrDefault("pool", "16"));
+        int concurrency = Integer.parseInt(options.getOrDefault("concurrency", "1000"));
+        int durationSeconds = Integer.parseInt(options.getOrDefault("duration", "15"));
+        int warmupSeconds = Integer.parseInt(options.getOrDefault("warmup", "5"));
+        String mixSpec = options.getOrDefault("mix", "get=80,page=10,cursor=10");
+        long seed = Long.parseLong(options.getOrDefault("seed", "42"));
+        String heap = options.getOrDefault("heap", "1g");
+        boolean pin = Boolean.parseBoolean(options.getOrDefault("pin", "true")) && new File("/usr/bin/taskset").canExecute();
+        File reportFile = new File(options.getOrDefault("report", "target/http-loadtest-report.json"));
+
+        TrafficMix mix = TrafficMix.parse(mixSpec, users);
+        List<Map<String, Object>> runs = new ArrayList<>();
+        StringBuilder summary = new StringBuilder(String.format("%-6s %12s %12s %8s %9s %9s %9s %9s%n",
+                "cores", "req/s", "req/s/core", "speedup", "p50 ms", "p99 ms", "failures", "stop ms"));
+
+        double baseline = 0;
+
+        for (int cores : coreCounts) {
+            System.out.printf("%n== %d core(s): seeding %,d users, then %d s warm-up and %d s at concurrency %d ==%n",
+                    cores, users, warmupSeconds, durationSeconds, concurrency);
+
+            Process server = startServer(cores, pin, heap, users, pool);
+
+            try {
+                int port = awaitPort(server);
+
+                try (HttpClient client = HttpClient.newBuilder()
+                        .version(HttpClient.Version.HTTP_1_1)
+                        .connectTimeout(Duration.ofSeconds(10))
+                        .build()) {
+
+                    String base = "http://127.0.0.1:" + port;
+
+                    drive(client, base, mix, seed, concurrency, warmupSeconds, new LoadReport());
+
+                    LoadReport report = new LoadReport();
+                    double elapsed = drive(client, base, mix, seed + 1, concurrency, durationSeconds, report);
+
+                    long stopStart = System.nanoTime();
+                    server.destroy();
+                    boolean exited = server.waitFor(60, TimeUnit.SECONDS);
+                    long stopMillis = (System.nanoTime() - stopStart) / 1_000_000;
+
+                    Map<String, Object> warm = report.toMap(elapsed);
+                    double throughput = (double) warm.get("throughputPerSecond");
+                    @SuppressWarnings("unchecked")
+                    Map<String, Double> latency = (Map<String, Double>) warm.get("latencyMs");
+
+                    if (baseline == 0) {
+                        baseline = throughput;
+                    }
+
+                    System.out.print(report.toText(elapsed));
+
+                    Map<String, Object> run = new LinkedHashMap<>();
+                    run.put("cores", cores);
+                    run.put("warm", warm);
+                    run.put("shutdownMs", stopMillis);
+                    run.put("exitCode", exited ? server.exitValue() : null);
+                    runs.add(run);
+
+                    summary.append(String.format("%-6d %12.1f %12.1f %8.2f %9.2f %9.2f %9d %9d%n",
+                            cores, throughput, throughput / cores, throughput / baseline,
+                            latency.get("p50"), latency.get("p99"),
+                            report.failures(), stopMillis));
+                }
+            } finally {
+                server.destroyForcibly();
+            }
+        }
+
+        Map<String, Object> config = new LinkedHashMap<>();
+        config.put("cores", coreCounts);
+        config.put("users", users);
+        config.put("pool", pool);
+        config.put("concurrency", concurrency);
+        config.put("durationSeconds", durationSeconds);
+        config.put("warmupSeconds", warmupSeconds);
+        config.put("mix", mixSpec);
+        config.put("seed", seed);
+        config.put("pinned", pin);
+        config.put("availableProcessors", Runtime.getRuntime().availableProcessors());
+        config.put("javaVersion", System.getProperty("java.version"));
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("config", config);
+        report.put("runs", runs);
+
+        if (reportFile.getParentFile() != null) {
+            reportFile.getParentFile().mkdirs();
+        }
+        new ObjectMapper().writerWithDefaultPrettyPrinter().writeValue(reportFile, report);
+
+        // Speedup is relative to the first run
+        System.out.println();
+        System.out.print(summary);
+        System.out.println("Report written to " + reportFile.getPath());
+    }
+
+    /**
+     * Runs {@code concurrency} closed-loop clients for {@code seconds}.
+     *
+     * @return the elapsed wall-clock time in seconds.
+     */
+    private static double drive(HttpClient client,
+                                String base,
+                                TrafficMix mix,
+                                long seed,
+                                int concurrency,
+                                int seconds,
+                                LoadReport report) throws InterruptedException {
+
+        long start = System.nanoTime();
+        long end = start + TimeUnit.SECONDS.toNanos(seconds);
+
+        try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int c = 0; c < concurrency; c++) {
+                SplittableRandom random = new SplittableRandom(seed * 31 + c);
+
+                clients.execute(() -> {
+                    while (System.nanoTime() < end) {
+                        Scenario scenario = mix.next(random);
+                        HttpRequest request = toRequest(base, mix.request(scenario, random));
+
+                        long sent = System.nanoTime();
+                        int status;
+
+                        try {
+                            status = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+                        } catch (IOException e) {
+                            status = 0;
+                        } catch (InterruptedException e) {
+                            return;
+                        }
+
+                        report.record(scenario, System.nanoTime() - sent, status);
+                    }
+                });
+            }
+        }
+
+        return (System.nanoTime() - start) / 1e9;
+    }
+
+    private static HttpRequest toRequest(String base, APIGatewayProxyRequestEvent event) {
+        StringBuilder uri = new StringBuilder(base).append(event.getPath());
+        char separator = '?';
+
+        for (Map.Entry<String, String> parameter : event.getQueryStringParameters().entrySet()) {
+            uri.append(separator)
+                    .append(URLEncoder.encode(parameter.getKey(), StandardCharsets.UTF_8))
+                    .append('=')
+                    .append(URLEncoder.encode(parameter.getValue(), StandardCharsets.UTF_8));
+            separator = '&';
+        }
+
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(uri.toString()))
+                .timeout(Duration.ofSeconds(30))
+                .GET();
+
+        event.getHeaders().forEach(request::header);
+        return request.build();
+    }
+
+    private static Process startServer(int cores, boolean pin, String heap, long users, int pool) throws IOException {
+        List<String> command = new ArrayList<>();
+
+        if (pin) {
+            command.add("/usr/bin/taskset");
+            command.add("-c");
+            command.add("0-" + (cores - 1));
+        }
+
+        command.add(Paths.get(System.getProperty("java.home"), "bin", "java").toString());
+        command.add("-XX:ActiveProcessorCount=" + cores);
+        command.add("-Xms" + heap);
+        command.add("-Xmx" + heap);
+        command.add("-cp");
+        command.add(classpath());
+        command.add(LoadTestServer.class.getName());
+        command.add("--users=" + users);
+        command.add("--pool=" + pool);
+
+        ProcessBuilder builder = new ProcessBuilder(command).redirectErrorStream(true);
+        builder.environment().put("SERVER_LOG_LEVEL", "warn");
+        builder.environment().put("SERVER_MAX_IN_FLIGHT", "100000");
+        return builder.start();
+    }
+
+    /**
+     * Waits for the server's ready line, echoing the rest of its output.
+     */
+    private static int awaitPort(Process server) throws Exception {
+        CompletableFuture<Integer> port = new CompletableFuture<>();
+
+        Thread.ofVirtual().start(() -> {
+            try (BufferedReader lines = new BufferedReader(
+                    new InputStreamReader(server.getInputStream(), StandardCharsets.UTF_8))) {
+
+                String line;
+                while ((line = lines.readLine()) != null) {
+                    if (line.startsWith(LoadTestServer.READY)) {
+                        port.complete(Integer.parseInt(line.substring(LoadTestServer.READY.length()).trim()));
+                    } else {
+                        System.out.println("  [server] " + line);
+                    }
+                }
+            } catch (IOException e) {
+                // Server output closed
+            }
+
+            port.completeExceptionally(new IllegalStateException("Server exited before it was ready"));
+        });
+
+        return port.get(10, TimeUnit.MINUTES);
+    }
+
+    /**
+     * The classpath this class was loaded from, also under {@code mvn exec:java},
+     * where {@code java.class.path} only holds Maven's own launcher.
+     */
+    private static String classpath() {
+        if (!(HttpLoadTestMain.class.getClassLoader() instanceof URLClassLoader loader)) {
+            return System.getProperty("java.class.path");
+        }
+
+        List<String> entries = new ArrayList<>();
+
+        for (URL url : loader.getURLs()) {
+            try {
+                entries.add(Paths.get(url.toURI()).toString());
+            } catch (Exception e) {
+                // Not a local file
+            }
+        }
+
+        return String.join(File.pathSeparator, entries);
+    }
+
+    private static List<Integer> parseCores(String spec) {
+        List<Integer> cores = new ArrayList<>();
+
+        if (spec != null) {
+            for (String part : spec.split(",")) {
+                cores.add(Integer.parseInt(part.trim()));
+            }
+            return cores;
+        }
+
+        int available = Runtime.getRuntime().availableProcessors();
+
+        for (int n = 1; n < available; n *= 2) {
+            cores.add(n);
+        }
+        cores.add(available);
+        return cores;
+    }
+}
@@ -0,0 +1,135 @@
+package com.coniungo.app.loadtest;
+
+import com.coniungo.app.loadtest.TrafficMix.Scenario;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latency histograms (microseconds) and status counts of one measured run,
+ * overall and per scenario, rendered as a JSON-ready map and as text.
+ */
+final class LoadReport {
+
+    private static final long HIGHEST_TRACKABLE_MICROS = 60_000_000L;
+
+    private final Histogram overall = newHistogram();
+    private final Map<Scenario, Histogram> latencies = new EnumMap<>(Scenario.class);
+    private final Map<Scenario, Map<Integer, LongAdder>> statuses = new EnumMap<>(Scenario.class);
+    private final LongAdder failures = new LongAdder();
+
+    LoadReport() {
+        for (Scenario scenario : Scenario.values()) {
+            latencies.put(scenario, newHistogram());
+            statuses.put(scenario, new ConcurrentHashMap<>());
+        }
+    }
+
+    private static Histogram newHistogram() {
+        return new ConcurrentHistogram(HIGHEST_TRACKABLE_MICROS, 3);
+    }
+
+    /**
+     * @param statusCode the response status, or 0 if the handler threw; both 0 and 5xx count as failures.
+     */
+    void record(Scenario scenario, long latencyNanos, int statusCode) {
+        long micros = Math.min(Math.max(latencyNanos, 0) / 1_000, HIGHEST_TRACKABLE_MICROS);
+
+        overall.recordValue(micros);
+        latencies.get(scenario).recordValue(micros);
+        statuses.get(scenario).computeIfAbsent(statusCode, code -> new LongAdder()).increment();
+
+        if (statusCode == 0 || statusCode >= 500) {
+            failures.increment();
+        }
+    }
+
+    long failures() {
+        return failures.sum();
+    }
+
+    Map<String, Object> toMap(double elapsedSeconds) {
+        Map<String, Object> report = new LinkedHashMap<>();
+
+        report.put("requests", overall.getTotalCount());
+        report.put("failures", failures.sum());
+        report.put("elapsedSeconds", elapsedSeconds);
+        report.put("throughputPerSecond", overall.getTotalCount() / elapsedSeconds);
+        report.put("latencyMs", percentiles(overall));
+
+        Map<String, Object> scenarios = new LinkedHashMap<>();
+
+        for (Scenario scenario : Scenario.values()) {
+            Histogram h = latencies.get(scenario);
+
+            if (h.getTotalCount() == 0) {
+                continue;
+            }
+
+            Map<String, Long> codes = new TreeMap<>();
+            statuses.get(scenario).forEach((code, count) -> codes.put(Integer.toString(code), count.sum()));
+
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("requests", h.getTotalCount());
+            entry.put("statusCodes", codes);
+            entry.put("latencyMs", percentiles(h));
+
+            scenarios.put(scenario.key, entry);
+        }
+
+        report.put("scenarios", scenarios);
+        return report;
+    }
+
+    private static Map<String, Double> percentiles(Histogram h) {
+        Map<String, Double> p = new LinkedHashMap<>();
+
+        p.put("p50", h.getValueAtPercentile(50) / 1_000.0);
+        p.put("p95", h.getValueAtPercentile(95) / 1_000.0);
+        p.put("p99", h.getValueAtPercentile(99) / 1_000.0);
+        p.put("max", h.getMaxValue() / 1_000.0);
+        p.put("mean", h.getMean() / 1_000.0);
+        return p;
+    }
+
+    String toText(double elapsedSeconds) {
+        StringBuilder text = new StringBuilder();
+
+        text.append(String.format("%-10s %9s %9s %9s %9s %9s %9s  %s%n",
+                "scenario", "requests", "p50 ms", "p95 ms", "p99 ms", "max ms", "mean ms", "status codes"));
+
+        for (Scenario scenario : Scenario.values()) {
+            Histogram h = latencies.get(scenario);
+
+            if (h.getTotalCount() > 0) {
+                Map<Integer, Long> codes = new TreeMap<>();
+                statuses.get(scenario).forEach((code, count) -> codes.put(code, count.sum()));
+                appendRow(text, scenario.key, h, codes.toString());
+            }
+        }
+
+        appendRow(text, "all", overall, "");
+
+        text.append(String.format("%nthroughput %.1f req/s over %.1f s, %d failures%n",
+                overall.getTotalCount() / elapsedSeconds, elapsedSeconds, failures.sum()));
+        return text.toString();
+    }
+
+    private static void appendRow(StringBuilder text, String name, Histogram h, String codes) {
+        text.append(String.format("%-10s %9d %9.2f %9.2f %9.2f %9.2f %9.2f  %s%n",
+                name,
+                h.getTotalCount(),
+                h.getValueAtPercentile(50) / 1_000.0,
+                h.getValueAtPercentile(95) / 1_000.0,
+                h.getValueAtPercentile(99) / 1_000.0,
+                h.getMaxValue() / 1_000.0,
+                h.getMean() / 1_000.0,
+                codes));
+    }
+}
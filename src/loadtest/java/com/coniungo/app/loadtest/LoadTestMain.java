@@ -0,0 +1,257 @@
+package com.coniungo.app.loadtest;
+
+import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyRequestEvent;
+import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyResponseEvent;
+import com.coniungo.app.dao.PgDataService;
+import com.coniungo.app.dao.ReaderStats;
+import com.coniungo.app.handlers.GetAllUsersHandler;
+import com.coniungo.app.handlers.GetUserHandler;
+import com.coniungo.app.loadtest.TrafficMix.Scenario;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.File;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Drives {@link GetUserHandler} and {@link GetAllUsersHandler} with synthetic
+ * API Gateway events against an {@link EmbeddedDatabase}, without deploying.
+ * <p>
+ * The first invocation of each handler is timed on its own as the cold cost
+ * (class loading, static init, pool start-up in this JVM); the run then
+ * warms up and measures warm latency at the target rate. With a rate set,
+ * requests follow a fixed schedule and latency is measured from each
+ * request's scheduled start, so time spent queued behind a slow request
+ * counts, as it would for a client.
+ * <p>
+ * Options, all {@code --name=value}: {@code users} (1000000), {@code rate}
+ * per second (0 = as fast as possible), {@code concurrency} (8),
+ * {@code duration} and {@code warmup} in seconds (30, 5), {@code mix}
+ * ({@code get=70,page=15,deep=5,cursor=5,invalid=5}), {@code seed} (42),
+ * {@code report} (target/loadtest-report.json), {@code verbose} (false),
+ * {@code reader} (false) to route reads to a second database standing in for
+ * a reader endpoint, and {@code readerLag} in milliseconds (0) for the lag it reports.
+ */
+public final class LoadTestMain {
+
+    private LoadTestMain() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parse(args);
+
+        long users = Long.parseLong(options.getOrDefault("users", "1000000"));
+        double rate = Double.parseDouble(options.getOrDefault("rate", "0"));
+        int concurrency = Integer.parseInt(options.getOrDefault("concurrency", "8"));
+        int durationSeconds = Integer.parseInt(options.getOrDefault("duration", "30"));
+        int warmupSeconds = Integer.parseInt(options.getOrDefault("warmup", "5"));
+        String mixSpec = options.getOrDefault("mix", "get=70,page=15,deep=5,cursor=5,invalid=5");
+        long seed = Long.parseLong(options.getOrDefault("seed", "42"));
+        File reportFile = new File(options.getOrDefault("report", "target/loadtest-report.json"));
+        boolean verbose = Boolean.parseBoolean(options.getOrDefault("verbose", "false"));
+        boolean withReader = Boolean.parseBoolean(options.getOrDefault("reader", "false"));
+        long readerLagMillis = Long.parseLong(options.getOrDefault("readerLag", "0"));
+
+        TrafficMix mix = TrafficMix.parse(mixSpec, users);
+        AtomicLong logLines = new AtomicLong();
+
+        System.out.printf("Seeding %,d users...%n", users);
+        EmbeddedDatabase database = new EmbeddedDatabase(concurrency);
+        long seedMillis = database.seed(users);
+
+        EmbeddedDatabase reader = null;
+
+        if (withReader) {
+            reader = new EmbeddedDatabase("loadtest_reader", concurrency);
+            seedMillis += reader.seed(users);
+            reader.emulateReplica();
+            EmbeddedDatabase.setReplicaLagMillis(readerLagMillis);
+        }
+
+        PgDataService.useConnectionProviders(database, reader);
+        System.out.printf("Seeded in %,d ms%n", seedMillis);
+
+        Handlers handlers = new Handlers();
+        Map<String, Object> cold = handlers.coldStart(mix, new SplittableRandom(seed), verbose, logLines);
+
+        System.out.printf("Warming up for %d s...%n", warmupSeconds);
+        drive(handlers, mix, seed, rate, concurrency, warmupSeconds, new LoadReport(), verbose, logLines);
+
+        System.out.printf("Measuring for %d s (rate %s, concurrency %d, mix %s)...%n",
+                durationSeconds, rate > 0 ? rate + "/s" : "unlimited", concurrency, mixSpec);
+        LoadReport warm = new LoadReport();
+        double elapsed = drive(handlers, mix, seed + 1, rate, concurrency, durationSeconds, warm, verbose, logLines);
+
+        Map<String, Object> config = new LinkedHashMap<>();
+        config.put("users", users);
+        config.put("rate", rate);
+        config.put("concurrency", concurrency);
+        config.put("durationSeconds", durationSeconds);
+        config.put("warmupSeconds", warmupSeconds);
+        config.put("mix", mixSpec);
+        config.put("seed", seed);
+        config.put("reader", withReader);
+        config.put("readerLagMs", readerLagMillis);
+        config.put("availableProcessors", Runtime.getRuntime().availableProcessors());
+        config.put("javaVersion", System.getProperty("java.version"));
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("config", config);
+        report.put("seedMillis", seedMillis);
+        report.put("cold", cold);
+        report.put("warm", warm.toMap(elapsed));
+        report.put("handlerLogLines", logLines.get());
+
+        ReaderStats readerStats = PgDataService.readerStats();
+
+        if (readerStats != null) {
+            report.put("readerRouting", readerStats);
+        }
+
+        if (reportFile.getParentFile() != null) {
+            reportFile.getParentFile().mkdirs();
+        }
+        new ObjectMapper().writerWithDefaultPrettyPrinter().writeValue(reportFile, report);
+
+        System.out.println();
+        System.out.println("Cold (first invocation per handler, ms): " + cold);
+        System.out.println();
+        System.out.print(warm.toText(elapsed));
+        if (readerStats != null) {
+            System.out.println("Reader routing (warm-up included): " + readerStats);
+        }
+        System.out.println("Report written to " + reportFile.getPath());
+
+        PgDataService.closeConnectionProvider();
+        System.exit(warm.failures() == 0 ? 0 : 1);
+    }
+
+    /**
+     * Runs the mix for {@code seconds} on {@code concurrency} workers.
+     *
+     * @return the elapsed wall-clock time in seconds.
+     */
+    private static double drive(Handlers handlers,
+                                TrafficMix mix,
+                                long seed,
+                                double rate,
+                                int concurrency,
+                                int seconds,
+                                LoadReport report,
+                                boolean verbose,
+                                AtomicLong logLines) throws InterruptedException {
+
+        long intervalNanos = rate > 0 ? (long) (1_000_000_000L / rate) : 0;
+        long start = System.nanoTime();
+        long end = start + TimeUnit.SECONDS.toNanos(seconds);
+        AtomicLong sequence = new AtomicLong();
+
+        ExecutorService workers = Executors.newFixedThreadPool(concurrency);
+
+        for (int w = 0; w < concurrency; w++) {
+            SplittableRandom random = new SplittableRandom(seed * 31 + w);
+
+            workers.execute(() -> {
+                while (true) {
+                    long scheduled = intervalNanos > 0
+                            ? start + sequence.getAndIncrement() * intervalNanos
+                            : System.nanoTime();
+
+                    if (scheduled >= end) {
+                        return;
+                    }
+
+                    // parkNanos may return early
+                    long wait;
+                    while ((wait = scheduled - System.nanoTime()) > 0) {
+                        LockSupport.parkNanos(wait);
+                    }
+
+                    Scenario scenario = mix.next(random);
+                    APIGatewayProxyRequestEvent request = mix.request(scenario, random);
+
+                    int status = handlers.invoke(scenario, request, new FakeContext(verbose, logLines));
+
+                    report.record(scenario, System.nanoTime() - scheduled, status);
+                }
+            });
+        }
+
+        workers.shutdown();
+        workers.awaitTermination(seconds + 60L, TimeUnit.SECONDS);
+
+        return (System.nanoTime() - start) / 1e9;
+    }
+
+    static Map<String, String> parse(String[] args) {
+        Map<String, String> options = new HashMap<>();
+
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --name=value, got: " + arg);
+            }
+            int eq = arg.indexOf('=');
+            options.put(arg.substring(2, eq), arg.substring(eq + 1));
+        }
+
+        return options;
+    }
+
+    /**
+     * One instance of each handler, created lazily so the first creation and
+     * invocation can be timed as the cold start.
+     */
+    private static final class Handlers {
+
+        private GetUserHandler getUser;
+        private GetAllUsersHandler getAllUsers;
+
+        Map<String, Object> coldStart(TrafficMix mix, SplittableRandom random, boolean verbose, AtomicLong logLines) {
+            Map<String, Object> cold = new LinkedHashMap<>();
+
+            long start = System.nanoTime();
+            getUser = new GetUserHandler();
+            long created = System.nanoTime();
+            int status = invoke(Scenario.GET, mix.request(Scenario.GET, random), new FakeContext(verbose, logLines));
+            cold.put("GetUserHandler", coldEntry(start, created, System.nanoTime(), status));
+
+            start = System.nanoTime();
+            getAllUsers = new GetAllUsersHandler();
+            created = System.nanoTime();
+            status = invoke(Scenario.PAGE, mix.request(Scenario.PAGE, random), new FakeContext(verbose, logLines));
+            cold.put("GetAllUsersHandler", coldEntry(start, created, System.nanoTime(), status));
+
+            return cold;
+        }
+
+        private static Map<String, Object> coldEntry(long start, long created, long done, int status) {
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("initMs", (created - start) / 1e6);
+            entry.put("firstInvocationMs", (done - created) / 1e6);
+            entry.put("statusCode", status);
+            return entry;
+        }
+
+        /**
+         * @return the response status, or 0 if the handler threw.
+         */
+        int invoke(Scenario scenario, APIGatewayProxyRequestEvent request, FakeContext context) {
+            try {
+                APIGatewayProxyResponseEvent response = switch (scenario) {
+                    case GET, INVALID -> getUser.handleRequest(request, context);
+                    case PAGE, DEEP, CURSOR -> getAllUsers.handleRequest(request, context);
+                };
+                return response.getStatusCode();
+            } catch (RuntimeException e) {
+                return 0;
+            }
+        }
+    }
+}
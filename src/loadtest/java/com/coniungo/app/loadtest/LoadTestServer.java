@@ -0,0 +1,43 @@
+package com.coniungo.app.loadtest;
+
+import com.coniungo.app.dao.PgDataService;
+import com.coniungo.app.handlers.RouterHandler;
+import com.coniungo.app.server.UserApiServer;
+
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.util.Map;
+
+/**
+ * Server process for {@link HttpLoadTestMain}: seeds an {@link EmbeddedDatabase}
+ * and serves it through {@link UserApiServer} on a free loopback port, then
+ * prints {@value #READY} and the port. Stops gracefully on SIGTERM.
+ * <p>
+ * Options, all {@code --name=value}: {@code users} (100000) and {@code pool}
+ * connections (16).
+ */
+public final class LoadTestServer {
+
+    static final String READY = "LISTENING ";
+
+    private LoadTestServer() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = LoadTestMain.parse(args);
+
+        long users = Long.parseLong(options.getOrDefault("users", "100000"));
+        int pool = Integer.parseInt(options.getOrDefault("pool", "16"));
+
+        EmbeddedDatabase database = new EmbeddedDatabase(pool);
+        database.seed(users);
+        PgDataService.useConnectionProvider(database);
+
+        UserApiServer server = UserApiServer.start(
+                new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), new RouterHandler());
+        Runtime.getRuntime().addShutdownHook(new Thread(server::stop, "user-api-shutdown"));
+
+        System.out.println(READY + server.port());
+        System.out.flush();
+    }
+}
@@ -0,0 +1,124 @@
+package com.coniungo.app.loadtest;
+
+import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyRequestEvent;
+import com.coniungo.app.utils.CursorCodec;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * Weighted mix of request scenarios, parsed from e.g.
+ * {@code get=70,page=15,deep=5,cursor=5,invalid=5}, and the synthetic
+ * API Gateway events for each.
+ */
+final class TrafficMix {
+
+    enum Scenario {
+        /** Single user by a random existing ID. */
+        GET("get"),
+        /** First page of 50 users. */
+        PAGE("page"),
+        /** OFFSET page from the last tenth of the table. */
+        DEEP("deep"),
+        /** Keyset page after a cursor from the last tenth of the table. */
+        CURSOR("cursor"),
+        /** Single user by a malformed (400) or unknown (404) ID. */
+        INVALID("invalid");
+
+        final String key;
+
+        Scenario(String key) {
+            this.key = key;
+        }
+    }
+
+    private static final int PAGE_SIZE = 50;
+
+    private final Scenario[] scenarios;
+    private final int[] cumulativeWeights;
+    private final int totalWeight;
+    private final long users;
+
+    private TrafficMix(Map<Scenario, Integer> weights, long users) {
+        this.scenarios = weights.keySet().toArray(new Scenario[0]);
+        this.cumulativeWeights = new int[scenarios.length];
+        this.users = users;
+
+        int total = 0;
+        for (int i = 0; i < scenarios.length; i++) {
+            total += weights.get(scenarios[i]);
+            cumulativeWeights[i] = total;
+        }
+        this.totalWeight = total;
+    }
+
+    /**
+     * @throws IllegalArgumentException on an unknown scenario or a mix with no positive weight.
+     */
+    static TrafficMix parse(String spec, long users) {
+        Map<Scenario, Integer> weights = new EnumMap<>(Scenario.class);
+
+        for (String part : spec.split(",")) {
+            String[] kv = part.trim().split("=");
+            Scenario scenario = byKey(kv[0].trim());
+            int weight = Integer.parseInt(kv[1].trim());
+
+            if (weight > 0) {
+                weights.put(scenario, weight);
+            }
+        }
+
+        if (weights.isEmpty()) {
+            throw new IllegalArgumentException("Traffic mix has no positive weights: " + spec);
+        }
+
+        return new TrafficMix(weights, users);
+    }
+
+    private static Scenario byKey(String key) {
+        for (Scenario scenario : Scenario.values()) {
+            if (scenario.key.equals(key)) {
+                return scenario;
+            }
+        }
+        throw new IllegalArgumentException("Unknown scenario: " + key);
+    }
+
+    Scenario next(SplittableRandom random) {
+        int pick = random.nextInt(totalWeight);
+
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            if (pick < cumulativeWeights[i]) {
+                return scenarios[i];
+            }
+        }
+        return scenarios[scenarios.length - 1];
+    }
+
+    APIGatewayProxyRequestEvent request(Scenario scenario, SplittableRandom random) {
+        long deepStart = Math.max(1, users - users / 10);
+
+        return switch (scenario) {
+            case GET -> event("/api/v1/user", Map.of("id", Long.toString(random.nextLong(1, users + 1))));
+            case PAGE -> event("/api/v1/users", Map.of("pageSize", Integer.toString(PAGE_SIZE)));
+            case DEEP -> event("/api/v1/users", Map.of(
+                    "pageSize", Integer.toString(PAGE_SIZE),
+                    "pageNumber", Long.toString(random.nextLong(deepStart, users + 1) / PAGE_SIZE + 1)));
+            case CURSOR -> event("/api/v1/users", Map.of(
+                    "pageSize", Integer.toString(PAGE_SIZE),
+                    "cursor", CursorCodec.encodeId(random.nextLong(deepStart, users + 1))));
+            case INVALID -> event("/api/v1/user", Map.of("id", random.nextBoolean()
+                    ? "not-a-number"
+                    : Long.toString(users + random.nextLong(1, 1_000_000))));
+        };
+    }
+
+    private static APIGatewayProxyRequestEvent event(String path, Map<String, String> query) {
+        return new APIGatewayProxyRequestEvent()
+                .withHttpMethod("GET")
+                .withPath(path)
+                .withHeaders(Map.of("Accept-Encoding", "gzip"))
+                .withQueryStringParameters(query);
+    }
+}
@@ -0,0 +1,175 @@
+package com.coniungo.app.cache;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Size-bounded, TTL-based, read-through cache with LRU eviction.
+ * <p>
+ * Misses are cached too (as empty values, with their own shorter TTL) so hot
+ * unknown keys do not reach the database on every call. Concurrent misses on
+ * the same key are collapsed into a single load; invalidation detaches loads
+ * already in flight, so callers arriving after a write never join a load
+ * that may have read the row before it.
+ *
+ * @param <K> the key type.
+ * @param <V> the value type.
+ */
+public class ReadThroughCache<K, V> {
+
+    private final int maxSize;
+    private final long ttlNanos;
+    private final long negativeTtlNanos;
+
+    // Access-ordered, so the eldest entry is the least recently used one
+    private final LinkedHashMap<K, CacheEntry<V>> entries;
+    private final ConcurrentHashMap<K, CompletableFuture<Optional<V>>> inFlight = new ConcurrentHashMap<>();
+
+    // Bumped by invalidate/invalidateAll so loads that started before them cannot repopulate stale values
+    private long generation;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder loads = new LongAdder();
+
+    public ReadThroughCache(int maxSize, long ttlMillis, long negativeTtlMillis) {
+        this.maxSize = maxSize;
+        this.ttlNanos = ttlMillis * 1_000_000L;
+        this.negativeTtlNanos = negativeTtlMillis * 1_000_000L;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, CacheEntry<V>> eldest) {
+                if (size() > ReadThroughCache.this.maxSize) {
+                    evictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Returns the cached value for {@code key}, loading it with {@code loader}
+     * on a miss. A {@code null} from the loader is cached as a negative entry.
+     *
+     * @throws RuntimeException whatever the loader throws, also to callers that
+     *         waited on the same load; failed loads are not cached.
+     */
+    public Optional<V> get(K key, Function<K, V> loader) {
+
+        if (maxSize <= 0) {
+            misses.increment();
+            loads.increment();
+            return Optional.ofNullable(loader.apply(key));
+        }
+
+        long gen;
+
+        synchronized (this) {
+            CacheEntry<V> entry = entries.get(key);
+
+            if (entry != null && entry.expiresAt - System.nanoTime() > 0) {
+                hits.increment();
+                return entry.value;
+            }
+
+            gen = generation;
+        }
+
+        misses.increment();
+
+        CompletableFuture<Optional<V>> mine = new CompletableFuture<>();
+        CompletableFuture<Optional<V>> existing = inFlight.putIfAbsent(key, mine);
+
+        if (existing != null) {
+            return await(existing);
+        }
+
+        try {
+            loads.increment();
+            Optional<V> value = Optional.ofNullable(loader.apply(key));
+            store(key, value, gen);
+            mine.complete(value);
+            return value;
+
+        } catch (Throwable t) {
+
+            // Errors included: waiters blocked on this load must not hang
+            mine.completeExceptionally(t);
+            throw t;
+
+        } finally {
+            inFlight.remove(key, mine);
+        }
+    }
+
+    /**
+     * Drops {@code key}; a load already in flight for it is neither stored
+     * nor shared with later callers, which load afresh.
+     */
+    public synchronized void invalidate(K key) {
+        generation++;
+        entries.remove(key);
+        inFlight.remove(key);
+    }
+
+    /**
+     * Drops every entry; loads already in flight are neither stored nor
+     * shared with later callers, which load afresh.
+     */
+    public synchronized void invalidateAll() {
+        generation++;
+        entries.clear();
+        inFlight.clear();
+    }
+
+    public synchronized CacheStats stats() {
+        return new CacheStats(
+                hits.sum(),
+                misses.sum(),
+                evictions.sum(),
+                loads.sum(),
+                entries.size()
+        );
+    }
+
+    private synchronized void store(K key, Optional<V> value, long gen) {
+        if (gen != generation) {
+            return;
+        }
+
+        long ttl = value.isPresent() ? ttlNanos : negativeTtlNanos;
+        entries.put(key, new CacheEntry<>(value, System.nanoTime() + ttl));
+    }
+
+    private Optional<V> await(CompletableFuture<Optional<V>> pending) {
+        try {
+            return pending.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private static final class CacheEntry<V> {
+        final Optional<V> value;
+        final long expiresAt;
+
+        CacheEntry(Optional<V> value, long expiresAt) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
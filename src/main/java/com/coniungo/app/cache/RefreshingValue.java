@@ -0,0 +1,57 @@
+package com.coniungo.app.cache;
+
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * A single cached value that is reloaded at most once per refresh interval.
+ * Concurrent callers of a stale value wait for one reload instead of each
+ * running their own. The wait is on a lock rather than a monitor, so a
+ * virtual thread waiting out a reload does not pin its carrier thread.
+ *
+ * @param <V> the value type.
+ */
+public class RefreshingValue<V> {
+
+    private final long refreshNanos;
+    private final Supplier<V> loader;
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private V value;
+    private long loadedAtNanos;
+    private boolean loaded;
+
+    public RefreshingValue(long refreshMillis, Supplier<V> loader) {
+        this.refreshNanos = refreshMillis * 1_000_000L;
+        this.loader = loader;
+    }
+
+    /**
+     * @throws RuntimeException whatever the loader throws; the previous value is kept.
+     */
+    public V get() {
+        lock.lock();
+        try {
+            if (!loaded || System.nanoTime() - loadedAtNanos > refreshNanos) {
+                set(loader.get());
+            }
+            return value;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Replaces the value with a fresher one obtained elsewhere, restarting the interval.
+     */
+    public void set(V newValue) {
+        lock.lock();
+        try {
+            value = newValue;
+            loadedAtNanos = System.nanoTime();
+            loaded = true;
+        } finally {
+            lock.unlock();
+        }
+    }
+}
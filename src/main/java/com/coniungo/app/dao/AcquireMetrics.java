@@ -0,0 +1,59 @@
+package com.coniungo.app.dao;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Connection acquire latency and provider start-up cost, used to choose a
+ * {@link ConnectionProvider} mode per function from measured numbers.
+ */
+public class AcquireMetrics {
+
+    private final LongAdder acquires = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final AtomicLong maxNanos = new AtomicLong();
+    private final LongAdder physicalConnects = new LongAdder();
+
+    private volatile long initNanos;
+
+    void recordAcquire(long nanos) {
+        acquires.increment();
+        totalNanos.add(nanos);
+        maxNanos.accumulateAndGet(nanos, Math::max);
+    }
+
+    void recordPhysicalConnect() {
+        physicalConnects.increment();
+    }
+
+    void recordInit(long nanos) {
+        initNanos = nanos;
+    }
+
+    public long getAcquires() {
+        return acquires.sum();
+    }
+
+    public double getAverageAcquireMicros() {
+        long count = acquires.sum();
+        return count == 0 ? 0.0 : totalNanos.sum() / 1_000.0 / count;
+    }
+
+    public double getMaxAcquireMicros() {
+        return maxNanos.get() / 1_000.0;
+    }
+
+    public long getPhysicalConnects() {
+        return physicalConnects.sum();
+    }
+
+    public double getInitMillis() {
+        return initNanos / 1_000_000.0;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("acquires=%d avgAcquireUs=%.1f maxAcquireUs=%.1f physicalConnects=%d initMs=%.1f",
+                getAcquires(), getAverageAcquireMicros(), getMaxAcquireMicros(), getPhysicalConnects(), getInitMillis());
+    }
+}
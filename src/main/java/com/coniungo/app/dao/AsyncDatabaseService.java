@@ -0,0 +1,78 @@
+package com.coniungo.app.dao;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Non-blocking companion to {@link DatabaseService} for fanning out
+ * independent queries within one request.
+ * <p>
+ * Each operation runs on its own virtual thread. The number of operations
+ * holding a connection at once never exceeds the connection pool size; the
+ * rest queue without blocking a platform thread. Cancelling a returned future
+ * cancels the queued operation, or interrupts it if it is already running.
+ *
+ * @param <T> the type of the entity this service manages.
+ */
+public interface AsyncDatabaseService<T> {
+
+    /**
+     * @see DatabaseService#read(String, String, Object, DatabaseService.RowMapper)
+     */
+    CompletableFuture<T> readAsync(String tableName,
+                                   String primaryKeyColumn,
+                                   Object primaryKeyValue,
+                                   DatabaseService.RowMapper<T> rowMapper);
+
+    /**
+     * @see DatabaseService#readByKeys(String, String, String, Collection, DatabaseService.RowMapper)
+     */
+    CompletableFuture<List<T>> readByKeysAsync(String tableName,
+                                               String keyColumn,
+                                               String keyType,
+                                               Collection<?> keys,
+                                               DatabaseService.RowMapper<T> rowMapper);
+
+    /**
+     * @see DatabaseService#readPaginated(String, int, int, DatabaseService.RowMapper)
+     */
+    CompletableFuture<Page<T>> readPaginatedAsync(String tableName,
+                                                  int pageSize,
+                                                  int pageNumber,
+                                                  DatabaseService.RowMapper<T> mapper);
+
+    /**
+     * @see DatabaseService#readAfter(String, String, Object, int, DatabaseService.RowMapper)
+     */
+    CompletableFuture<Page<T>> readAfterAsync(String tableName,
+                                              String keyColumn,
+                                              Object lastKey,
+                                              int pageSize,
+                                              DatabaseService.RowMapper<T> mapper);
+
+    /**
+     * @see DatabaseService#readColumnsByCondition(String, String, String, Object[])
+     */
+    CompletableFuture<Object> readColumnsByConditionAsync(String tableName,
+                                                          String columns,
+                                                          String whereClause,
+                                                          Object[] whereParams);
+
+    /**
+     * @see DatabaseService#estimateRowCount(String)
+     */
+    CompletableFuture<Long> estimateRowCountAsync(String tableName);
+
+    /**
+     * @see DatabaseService#countRows(String)
+     */
+    CompletableFuture<Long> countRowsAsync(String tableName);
+
+    /**
+     * Runs arbitrary blocking data access under the same pool-size limit.
+     * The task must use at most one connection at a time.
+     */
+    <R> CompletableFuture<R> supplyAsync(Callable<R> task);
+}
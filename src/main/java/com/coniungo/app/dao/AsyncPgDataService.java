@@ -0,0 +1,151 @@
+package com.coniungo.app.dao;
+
+import com.coniungo.app.metrics.InvocationMetrics;
+import com.coniungo.app.metrics.Phase;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+
+/**
+ * {@link AsyncDatabaseService} running a blocking {@link DatabaseService} on
+ * virtual threads.
+ * <p>
+ * Interrupting a virtual thread blocked on a socket closes that socket, so a
+ * cancelled in-flight query also discards its connection; the pool replaces it.
+ */
+public class AsyncPgDataService<T> implements AsyncDatabaseService<T> {
+
+    private static final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    private final DatabaseService<T> delegate;
+
+    // Null when the connection pool is the only limit
+    private final Semaphore permits;
+
+    /**
+     * Starts every call at once. Connection demand is bounded by the pool,
+     * which sync and async callers share: a call that cannot get a connection
+     * within {@code DB_CONNECTION_TIMEOUT_MS} fails like a sync one would.
+     */
+    public AsyncPgDataService(DatabaseService<T> delegate) {
+        this.delegate = delegate;
+        this.permits = null;
+    }
+
+    /**
+     * Limits this instance to {@code maxConcurrent} calls in flight, for
+     * delegates that do not use the pool.
+     */
+    public AsyncPgDataService(DatabaseService<T> delegate, int maxConcurrent) {
+        this.delegate = delegate;
+        this.permits = new Semaphore(maxConcurrent, true);
+    }
+
+    @Override
+    public CompletableFuture<T> readAsync(String table,
+                                          String pkCol,
+                                          Object pkVal,
+                                          DatabaseService.RowMapper<T> mapper) {
+        return supplyAsync(() -> delegate.read(table, pkCol, pkVal, mapper));
+    }
+
+    @Override
+    public CompletableFuture<List<T>> readByKeysAsync(String table,
+                                                      String keyCol,
+                                                      String keyType,
+                                                      Collection<?> keys,
+                                                      DatabaseService.RowMapper<T> mapper) {
+        return supplyAsync(() -> delegate.readByKeys(table, keyCol, keyType, keys, mapper));
+    }
+
+    @Override
+    public CompletableFuture<Page<T>> readPaginatedAsync(String table,
+                                                         int pageSize,
+                                                         int pageNumber,
+                                                         DatabaseService.RowMapper<T> mapper) {
+        return supplyAsync(() -> delegate.readPaginated(table, pageSize, pageNumber, mapper));
+    }
+
+    @Override
+    public CompletableFuture<Page<T>> readAfterAsync(String table,
+                                                     String keyCol,
+                                                     Object lastKey,
+                                                     int pageSize,
+                                                     DatabaseService.RowMapper<T> mapper) {
+        return supplyAsync(() -> delegate.readAfter(table, keyCol, lastKey, pageSize, mapper));
+    }
+
+    @Override
+    public CompletableFuture<Object> readColumnsByConditionAsync(String table,
+                                                                 String cols,
+                                                                 String where,
+                                                                 Object[] params) {
+        return supplyAsync(() -> delegate.readColumnsByCondition(table, cols, where, params));
+    }
+
+    @Override
+    public CompletableFuture<Long> estimateRowCountAsync(String table) {
+        return supplyAsync(() -> delegate.estimateRowCount(table));
+    }
+
+    @Override
+    public CompletableFuture<Long> countRowsAsync(String table) {
+        return supplyAsync(() -> delegate.countRows(table));
+    }
+
+    @Override
+    public <R> CompletableFuture<R> supplyAsync(Callable<R> task) {
+
+        CompletableFuture<R> result = new CompletableFuture<>();
+
+        // Phases recorded on the virtual thread count towards the caller's invocation
+        InvocationMetrics metrics = InvocationMetrics.current();
+
+        Future<?> running = executor.submit(() -> {
+
+            if (permits != null) {
+                long waitStart = System.nanoTime();
+
+                try {
+                    permits.acquire();
+                } catch (InterruptedException e) {
+                    result.completeExceptionally(new CancellationException("Cancelled while waiting for a permit"));
+                    return;
+                }
+
+                metrics.record(Phase.POOL_ACQUIRE, System.nanoTime() - waitStart);
+            }
+
+            InvocationMetrics.attach(metrics);
+
+            try {
+                if (!result.isDone()) {
+                    result.complete(task.call());
+                }
+            } catch (Throwable t) {
+                result.completeExceptionally(t);
+            } finally {
+                InvocationMetrics.detach();
+
+                if (permits != null) {
+                    permits.release();
+                }
+            }
+        });
+
+        result.whenComplete((value, error) -> {
+            if (result.isCancelled()) {
+                running.cancel(true);
+            }
+        });
+
+        return result;
+    }
+}
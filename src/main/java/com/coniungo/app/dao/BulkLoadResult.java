@@ -0,0 +1,17 @@
+package com.coniungo.app.dao;
+
+import lombok.*;
+
+/**
+ * Outcome of a bulk write, with throughput for import monitoring.
+ */
+@Data
+@AllArgsConstructor
+public class BulkLoadResult {
+    private long rows;
+    private long elapsedMillis;
+
+    public double rowsPerSecond() {
+        return elapsedMillis == 0 ? rows * 1000.0 : rows * 1000.0 / elapsedMillis;
+    }
+}
@@ -0,0 +1,36 @@
+package com.coniungo.app.dao;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Source of JDBC connections for {@link PgDataService}.
+ * <p>
+ * Selected per function with {@code DB_CONNECTION_MODE}: {@code hikari}
+ * (default) for a configurable pool, or {@code single} for one lazily
+ * validated connection with no background threads.
+ */
+public interface ConnectionProvider extends AutoCloseable {
+
+    /**
+     * Returns a connection; closing it hands it back to the provider.
+     *
+     * @throws SQLException if no connection could be obtained within the configured timeout.
+     */
+    Connection getConnection() throws SQLException;
+
+    /**
+     * The maximum number of connections that can be checked out at once.
+     */
+    int maxConnections();
+
+    AcquireMetrics acquireMetrics();
+
+    PoolStats poolStats();
+
+    /**
+     * Closes all physical connections and stops any background work.
+     */
+    @Override
+    void close();
+}
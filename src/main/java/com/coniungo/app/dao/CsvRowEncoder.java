@@ -0,0 +1,66 @@
+package com.coniungo.app.dao;
+
+import org.postgresql.copy.CopyIn;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+
+/**
+ * Encodes rows in PostgreSQL's CSV {@code COPY} format into a reusable buffer
+ * that is drained into the copy stream in chunks.
+ */
+final class CsvRowEncoder {
+
+    private final ByteArrayOutputStream buffer;
+    private final StringBuilder line = new StringBuilder(256);
+
+    CsvRowEncoder(int initialCapacity) {
+        this.buffer = new ByteArrayOutputStream(initialCapacity);
+    }
+
+    void append(Object[] row) {
+        line.setLength(0);
+
+        for (int i = 0; i < row.length; i++) {
+            if (i > 0) {
+                line.append(',');
+            }
+
+            Object value = row[i];
+
+            // An unquoted empty field is NULL; quoting keeps empty strings distinct
+            if (value != null) {
+                line.append('"');
+                String text = value.toString();
+
+                for (int c = 0; c < text.length(); c++) {
+                    char ch = text.charAt(c);
+                    if (ch == '"') {
+                        line.append('"');
+                    }
+                    line.append(ch);
+                }
+
+                line.append('"');
+            }
+        }
+
+        line.append('\n');
+        buffer.writeBytes(line.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    int size() {
+        return buffer.size();
+    }
+
+    void flushTo(CopyIn copy) throws SQLException {
+        if (buffer.size() == 0) {
+            return;
+        }
+
+        byte[] bytes = buffer.toByteArray();
+        copy.writeToCopy(bytes, 0, bytes.length);
+        buffer.reset();
+    }
+}
@@ -5,6 +5,8 @@ import com.amazonaws.services.lambda.runtime.LambdaLogger;
 
 
 import java.sql.Connection;
+import java.util.Collection;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.sql.ResultSet;
@@ -29,6 +31,67 @@ public interface DatabaseService<T> {
      */
     void insert(String tableName, Map<String, Object> values, LambdaLogger logger);
 
+    /**
+     * Inserts many records into the specified table using JDBC batching.
+     * <p>
+     * Every row must have the same column set. Rows are sent in chunks, and the
+     * driver rewrites each chunk into multi-row {@code INSERT} statements.
+     *
+     * @param tableName the name of the table.
+     * @param rows the rows to insert, each a map of column names to values.
+     * @return the number of rows written and the elapsed time.
+     * @throws IllegalArgumentException if {@code rows} is empty or the rows have different columns.
+     * @throws RuntimeException if an SQL error occurs during the insert operation.
+     */
+    BulkLoadResult insertBatch(String tableName, List<Map<String, Object>> rows);
+
+    BulkLoadResult insertBatch(Connection conn,
+                               String tableName,
+                               List<Map<String, Object>> rows) throws SQLException;
+
+    /**
+     * Bulk loads records with {@code COPY ... FROM STDIN} in CSV format.
+     * <p>
+     * Rows are pulled from the iterator and written to the server as they
+     * are encoded, so the input is never fully buffered in memory.
+     *
+     * @param tableName the name of the table.
+     * @param columns the target columns, in the order of each row's values.
+     * @param rows the row values; {@code null} elements are loaded as SQL NULL.
+     * @return the number of rows written and the elapsed time.
+     * @throws RuntimeException if an SQL or I/O error occurs during the load.
+     */
+    BulkLoadResult copyIn(String tableName, List<String> columns, Iterator<Object[]> rows);
+
+    BulkLoadResult copyIn(Connection conn,
+                          String tableName,
+                          List<String> columns,
+                          Iterator<Object[]> rows) throws SQLException;
+
+    /**
+     * Inserts or updates records with multi-row
+     * {@code INSERT ... ON CONFLICT (conflictColumn) DO UPDATE} statements,
+     * all in one transaction.
+     * <p>
+     * Every row must have the same column set, including {@code conflictColumn}.
+     * When several rows share a key only the last one is written, since one
+     * statement cannot update the same row twice. Rows are sent in chunks that
+     * stay within the protocol's bind parameter limit.
+     *
+     * @param tableName the name of the table.
+     * @param conflictColumn the unique column identifying a record, e.g. {@code "id"}.
+     * @param rows the rows to write, each a map of column names to values.
+     * @return the number of rows inserted or updated and the elapsed time.
+     * @throws IllegalArgumentException if {@code rows} is empty, a row lacks the key, or the rows have different columns.
+     * @throws RuntimeException if an SQL error occurs; nothing is written in that case.
+     */
+    BulkLoadResult upsert(String tableName, String conflictColumn, List<Map<String, Object>> rows);
+
+    BulkLoadResult upsert(Connection conn,
+                          String tableName,
+                          String conflictColumn,
+                          List<Map<String, Object>> rows) throws SQLException;
+
     /**
      * Reads a single record from the specified table using the primary key.
      *
@@ -43,6 +106,20 @@ public interface DatabaseService<T> {
 
 
 
+    /**
+     * Reads all records whose key is in {@code keys} with a single
+     * {@code WHERE key = ANY(?)} query bound to an SQL array.
+     *
+     * @param tableName the name of the table.
+     * @param keyColumn the name of the (indexed) key column.
+     * @param keyType the SQL type name of the key column, e.g. {@code "bigint"}.
+     * @param keys the keys to look up.
+     * @param rowMapper a functional interface to map the result set to an entity.
+     * @return the mapped entities in no particular order; keys with no record are simply absent.
+     * @throws RuntimeException if an SQL error occurs during the read operation.
+     */
+    List<T> readByKeys(String tableName, String keyColumn, String keyType, Collection<?> keys, RowMapper<T> rowMapper);
+
     /**
      * Updates records in the specified table.
      *
@@ -84,6 +161,28 @@ public interface DatabaseService<T> {
          */
         T mapRow(ResultSet resultSet) throws SQLException;
     }
+
+    /**
+     * A {@link RowMapper} that declares the columns it needs.
+     * <p>
+     * Reads issued with a projection mapper select exactly {@link #columns()}
+     * instead of {@code SELECT *}, in that order, so the mapper can read each
+     * value by its 1-based index rather than by name.
+     *
+     * @param <T> the type of the entity.
+     */
+    interface ProjectionMapper<T> extends RowMapper<T> {
+
+        List<String> columns();
+
+        /**
+         * The select list for {@link #columns()}; implementations should return a precomputed constant.
+         */
+        default String projection() {
+            return String.join(", ", columns());
+        }
+    }
+
     Object readColumnsByCondition(String tableName, String columns, String whereClause, Object[] whereParams);
 
 
@@ -91,6 +190,15 @@ public interface DatabaseService<T> {
 
     void withTransaction(TransactionCallback callback);
 
+    /**
+     * Returns a view of this service whose reads all go to the writer, for
+     * read-your-writes right after a write. Reads otherwise go to the reader
+     * endpoint when one is configured; writes and transactions always use the writer.
+     */
+    default DatabaseService<T> onWriter() {
+        return this;
+    }
+
 
     void insert(Connection conn,
                 String tableName,
@@ -109,13 +217,143 @@ public interface DatabaseService<T> {
                                   String whereClause,
                                   Object[] whereParams) throws SQLException;
 
-    List<T> readPaginated(
+    /**
+     * Reads one page of records using {@code LIMIT/OFFSET}.
+     * <p>
+     * One extra row is fetched to tell whether another page follows, so no
+     * separate count query is needed.
+     *
+     * @param tableName the name of the table.
+     * @param pageSize the maximum number of rows in the page.
+     * @param pageNumber the 1-based page number.
+     * @param mapper a functional interface to map the result set to an entity.
+     * @return the page of mapped entities.
+     * @throws RuntimeException if an SQL error occurs during the read operation.
+     */
+    Page<T> readPaginated(
             String tableName,
             int pageSize,
             int pageNumber,
             RowMapper<T> mapper
     );
 
+    /**
+     * Reads the next page of records ordered by {@code keyColumn}, starting
+     * strictly after {@code lastKey} (keyset / seek pagination).
+     * <p>
+     * Unlike {@link #readPaginated}, the cost of a page does not grow with its
+     * depth and pages do not shift when rows are inserted concurrently.
+     *
+     * @param tableName the name of the table.
+     * @param keyColumn a unique, indexed column defining the page order.
+     * @param lastKey the key of the last row of the previous page, or {@code null} for the first page.
+     * @param pageSize the maximum number of rows to return.
+     * @param mapper a functional interface to map the result set to an entity.
+     * @return the page of mapped entities in ascending key order; like
+     *         {@link #readPaginated}, {@code hasMore} comes from one look-ahead row.
+     * @throws RuntimeException if an SQL error occurs during the read operation.
+     */
+    Page<T> readAfter(
+            String tableName,
+            String keyColumn,
+            Object lastKey,
+            int pageSize,
+            RowMapper<T> mapper
+    );
+
+    /**
+     * Reads the next page of records whose {@code column} starts with
+     * {@code prefix}, ignoring case, ordered by {@code (lower(column), keyColumn)}
+     * and starting strictly after the given position (keyset pagination).
+     * <p>
+     * The match is a bounded range on {@code lower(column) COLLATE "C"}, so
+     * with an expression index on {@code (lower(column) COLLATE "C", keyColumn)}
+     * every page is one index range scan, whatever the table size or page depth.
+     * The prefix is matched literally; {@code %} and {@code _} are not wildcards.
+     *
+     * @param tableName the name of the table.
+     * @param column the text column to match, e.g. {@code "username"}.
+     * @param prefix the prefix to match; must not be empty.
+     * @param keyColumn a unique column breaking ties between equal values.
+     * @param lastValue the raw {@code column} value of the last row of the previous page, or {@code null} for the first page.
+     * @param lastKey the key of the last row of the previous page; ignored when {@code lastValue} is {@code null}.
+     * @param pageSize the maximum number of rows to return.
+     * @param mapper a functional interface to map the result set to an entity.
+     * @return the page of mapped entities; {@code hasMore} comes from one look-ahead row.
+     * @throws RuntimeException if an SQL error occurs during the read operation.
+     */
+    Page<T> readByPrefix(
+            String tableName,
+            String column,
+            String prefix,
+            String keyColumn,
+            Object lastValue,
+            Object lastKey,
+            int pageSize,
+            RowMapper<T> mapper
+    );
+
+    /**
+     * Returns the planner's row estimate for a table ({@code pg_class.reltuples}).
+     * This is a catalog lookup, not a scan, but is only as fresh as the last
+     * {@code ANALYZE}/autovacuum.
+     *
+     * @param tableName the name of the table.
+     * @return the estimated number of rows, or {@code -1} if the table has never been analyzed.
+     * @throws RuntimeException if an SQL error occurs.
+     */
+    long estimateRowCount(String tableName);
+
+    /**
+     * Returns the exact number of rows with {@code COUNT(*)}; this scans the table.
+     *
+     * @param tableName the name of the table.
+     * @throws RuntimeException if an SQL error occurs.
+     */
+    long countRows(String tableName);
+
+    /**
+     * Streams records ordered by {@code keyColumn}, starting strictly after
+     * {@code lastKey}, to {@code callback} one row at a time.
+     * <p>
+     * Rows are pulled through a server-side cursor in batches of
+     * {@code fetchSize}, so memory is bounded by the fetch size rather than by
+     * {@code limit}. The callback runs while the connection is held; it should
+     * write the row out and return quickly.
+     *
+     * @param tableName the name of the table.
+     * @param keyColumn a unique, indexed column defining the row order.
+     * @param lastKey the key to start after, or {@code null} to start from the first row.
+     * @param limit the maximum number of rows to stream, or {@code 0} for no limit.
+     * @param fetchSize the number of rows fetched per round trip.
+     * @param mapper a functional interface to map the result set to an entity.
+     * @param callback receives each mapped entity in key order.
+     * @throws RuntimeException if an SQL error occurs or the callback fails.
+     */
+    void streamAfter(
+            String tableName,
+            String keyColumn,
+            Object lastKey,
+            int limit,
+            int fetchSize,
+            RowMapper<T> mapper,
+            RowCallback<T> callback
+    );
+
+    @FunctionalInterface
+    interface RowCallback<T> {
+        void accept(T row) throws Exception;
+    }
+
+    /**
+     * Notified after a write ({@code insert}, {@code update} or {@code delete})
+     * touches a table, so read caches layered above the DAO can invalidate.
+     */
+    @FunctionalInterface
+    interface WriteListener {
+        void onWrite(String tableName);
+    }
+
     @FunctionalInterface
     interface TransactionCallback {
         void execute(Connection connection) throws Exception;
@@ -0,0 +1,129 @@
+package com.coniungo.app.dao;
+
+import java.util.Properties;
+
+/**
+ * Connection settings read from the function environment, shared by every
+ * {@link ConnectionProvider} implementation.
+ */
+final class DbSettings {
+
+    final String jdbcUrl;
+    final String user;
+    final String password;
+
+    // Reader endpoint: connections are marked read-only
+    final boolean readOnly;
+
+    // pgjdbc connection properties
+    final Properties driverProperties;
+
+    private DbSettings(String jdbcUrl, String user, String password, boolean readOnly, Properties driverProperties) {
+        this.jdbcUrl = jdbcUrl;
+        this.user = user;
+        this.password = password;
+        this.readOnly = readOnly;
+        this.driverProperties = driverProperties;
+    }
+
+    static DbSettings fromEnv() {
+        return forHost(System.getenv("DB_HOST"), envOrDefault("DB_PORT", "5432"), false);
+    }
+
+    /**
+     * Settings for the reader endpoint in {@code DB_READER_HOST} (and optionally
+     * {@code DB_READER_PORT}), sharing the writer's database and credentials.
+     *
+     * @return the settings, or {@code null} if no reader is configured.
+     */
+    static DbSettings readerFromEnv() {
+
+        String host = envOrDefault("DB_READER_HOST", null);
+
+        if (host == null) {
+            return null;
+        }
+
+        return forHost(host, envOrDefault("DB_READER_PORT", envOrDefault("DB_PORT", "5432")), true);
+    }
+
+    private static DbSettings forHost(String host, String port, boolean readOnly) {
+
+        String db   = System.getenv("DB_NAME");
+
+        if (host == null || db == null) {
+            throw new IllegalStateException("DB env vars missing");
+        }
+
+        String jdbcUrl =
+                "jdbc:postgresql://" + host + ":" + port + "/" + db;
+
+        Properties props = new Properties();
+
+        // Server-side prepare from the first execution and keep statements cached
+        // per connection, so a warm container never re-parses/plans hot SQL.
+        props.setProperty("prepareThreshold",
+                envOrDefault("DB_PREPARE_THRESHOLD", "1"));
+        props.setProperty("preparedStatementCacheQueries",
+                envOrDefault("DB_STATEMENT_CACHE_QUERIES", "256"));
+        props.setProperty("preparedStatementCacheSizeMiB",
+                envOrDefault("DB_STATEMENT_CACHE_SIZE_MIB", "5"));
+
+        // Let insertBatch travel as multi-row INSERTs instead of one statement per row
+        props.setProperty("reWriteBatchedInserts", "true");
+
+        long statementTimeout = statementTimeoutMillis();
+
+        if (statementTimeout > 0) {
+            // Enforced by the server, so a stuck query frees its connection too
+            props.setProperty("options", "-c statement_timeout=" + statementTimeout);
+        }
+
+        if (readOnly) {
+            // Explicit transactions (streaming reads) open as BEGIN READ ONLY
+            props.setProperty("readOnly", "true");
+        }
+
+        return new DbSettings(
+                jdbcUrl,
+                System.getenv("DB_USER"),
+                System.getenv("DB_PASSWORD"),
+                readOnly,
+                props
+        );
+    }
+
+    /**
+     * How long a caller waits for a connection, {@code DB_CONNECTION_TIMEOUT_MS}.
+     * The HTTP server defaults to 1 s: a request that cannot get one by then is
+     * answered 503 rather than left queueing behind thousands of others.
+     */
+    static long connectionTimeoutMillis() {
+        return envLong("DB_CONNECTION_TIMEOUT_MS", inLambda() ? 5000 : 1000);
+    }
+
+    /**
+     * Server-side limit on each statement, {@code DB_STATEMENT_TIMEOUT_MS};
+     * 0 (the default) leaves the server's setting in place.
+     */
+    static long statementTimeoutMillis() {
+        return envLong("DB_STATEMENT_TIMEOUT_MS", 0);
+    }
+
+    static boolean inLambda() {
+        return System.getenv("AWS_LAMBDA_FUNCTION_NAME") != null;
+    }
+
+    static String envOrDefault(String name, String defaultValue) {
+        String value = System.getenv(name);
+        return value == null || value.isBlank() ? defaultValue : value.trim();
+    }
+
+    static int envInt(String name, int defaultValue) {
+        return Integer.parseInt(envOrDefault(name, Integer.toString(defaultValue)));
+    }
+
+    static long envLong(String name, long defaultValue) {
+        return Long.parseLong(envOrDefault(name, Long.toString(defaultValue)));
+    }
+}
@@ -0,0 +1,125 @@
+package com.coniungo.app.dao;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import org.postgresql.ds.PGSimpleDataSource;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Map;
+
+/**
+ * Hikari-backed pool whose sizing and timeouts come from the environment:
+ * {@code DB_POOL_MAX_SIZE}, {@code DB_POOL_MIN_IDLE}, {@code DB_CONNECTION_TIMEOUT_MS},
+ * {@code DB_IDLE_TIMEOUT_MS}, {@code DB_MAX_LIFETIME_MS} and {@code DB_KEEPALIVE_MS}.
+ */
+public class HikariConnectionProvider implements ConnectionProvider {
+
+    private final HikariDataSource dataSource;
+    private final AcquireMetrics metrics = new AcquireMetrics();
+
+    HikariConnectionProvider(DbSettings settings) {
+
+        long start = System.nanoTime();
+
+        HikariConfig config = new HikariConfig();
+
+        // Hikari opens connections through this data source, so each physical connect is counted
+        config.setDataSource(new CountingDataSource(settings, metrics));
+        config.setReadOnly(settings.readOnly);
+
+        // A Lambda container runs one request at a time; the HTTP server shares the pool across all of them
+        config.setMaximumPoolSize(DbSettings.envInt("DB_POOL_MAX_SIZE", DbSettings.inLambda() ? 2 : 10));
+        config.setMinimumIdle(DbSettings.envInt("DB_POOL_MIN_IDLE", 1));
+        config.setConnectionTimeout(DbSettings.connectionTimeoutMillis());
+        config.setIdleTimeout(DbSettings.envLong("DB_IDLE_TIMEOUT_MS", 600_000));
+        config.setMaxLifetime(DbSettings.envLong("DB_MAX_LIFETIME_MS", 1_800_000));
+        config.setKeepaliveTime(DbSettings.envLong("DB_KEEPALIVE_MS", 0));
+        config.setInitializationFailTimeout(-1);
+
+        dataSource = new HikariDataSource(config);
+
+        metrics.recordInit(System.nanoTime() - start);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+
+        long start = System.nanoTime();
+
+        Connection conn = dataSource.getConnection();
+
+        metrics.recordAcquire(System.nanoTime() - start);
+        return conn;
+    }
+
+    @Override
+    public int maxConnections() {
+        return dataSource.getMaximumPoolSize();
+    }
+
+    @Override
+    public AcquireMetrics acquireMetrics() {
+        return metrics;
+    }
+
+    @Override
+    public PoolStats poolStats() {
+
+        HikariPoolMXBean pool = dataSource.getHikariPoolMXBean();
+
+        if (pool == null) {
+            return new PoolStats(0, 0, 0, 0);
+        }
+
+        return new PoolStats(
+                pool.getActiveConnections(),
+                pool.getIdleConnections(),
+                pool.getThreadsAwaitingConnection(),
+                pool.getTotalConnections());
+    }
+
+    HikariDataSource dataSource() {
+        return dataSource;
+    }
+
+    @Override
+    public void close() {
+        dataSource.close();
+    }
+
+    /**
+     * pgjdbc data source with the settings' URL, credentials and driver
+     * properties that records every physical connection it opens.
+     */
+    private static final class CountingDataSource extends PGSimpleDataSource {
+
+        private static final long serialVersionUID = 1L;
+
+        private final transient AcquireMetrics metrics;
+
+        CountingDataSource(DbSettings settings, AcquireMetrics metrics) {
+            this.metrics = metrics;
+
+            setURL(settings.jdbcUrl);
+            setUser(settings.user);
+            setPassword(settings.password);
+
+            try {
+                for (Map.Entry<Object, Object> property : settings.driverProperties.entrySet()) {
+                    setProperty((String) property.getKey(), (String) property.getValue());
+                }
+            } catch (SQLException e) {
+                throw new IllegalStateException("Invalid driver property: " + e.getMessage(), e);
+            }
+        }
+
+        @Override
+        public Connection getConnection(String user, String password) throws SQLException {
+            Connection conn = super.getConnection(user, password);
+            metrics.recordPhysicalConnect();
+            return conn;
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.coniungo.app.dao;
+
+import lombok.*;
+
+import java.util.List;
+
+/**
+ * One page of results, plus whether at least one more row follows it.
+ *
+ * @param <T> the type of the entity.
+ */
+@Data
+@AllArgsConstructor
+public class Page<T> {
+    private List<T> items;
+    private boolean hasMore;
+
+    /**
+     * Builds a page from up to {@code pageSize + 1} fetched rows; the extra
+     * look-ahead row, if present, is dropped and only signals {@code hasMore}.
+     */
+    static <T> Page<T> fromLookAhead(List<T> rows, int pageSize) {
+        boolean hasMore = rows.size() > pageSize;
+
+        if (hasMore) {
+            rows.remove(rows.size() - 1);
+        }
+
+        return new Page<>(rows, hasMore);
+    }
+}
@@ -1,61 +1,342 @@
 package com.coniungo.app.dao;
 
 import com.amazonaws.services.lambda.runtime.LambdaLogger;
-import com.zaxxer.hikari.HikariConfig;
-import com.zaxxer.hikari.HikariDataSource;
+import com.coniungo.app.metrics.InvocationMetrics;
+import com.coniungo.app.metrics.Phase;
+import org.postgresql.copy.CopyIn;
+import org.postgresql.core.BaseConnection;
 
+import java.sql.Array;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 public class PgDataService<T> implements  DatabaseService<T> {
 
 
-    private static volatile HikariDataSource dataSource;
+    private static volatile ConnectionProvider connectionProvider;
 
-    private static HikariDataSource getDataSource() {
+    // Null when no reader endpoint is configured; published before connectionProvider
+    private static volatile ReaderRouter readerRouter;
 
-        if (dataSource != null) {
-            return dataSource;
+    // Rows per executeBatch round trip in insertBatch
+    private static final int BATCH_SIZE = 1000;
+
+    // The protocol sends the bind count as 16 bits; stay within the signed range older servers accept
+    private static final int MAX_BIND_PARAMETERS = Short.MAX_VALUE;
+
+    // Encoded CSV bytes buffered before each write to the COPY stream
+    private static final int COPY_BUFFER_BYTES = 64 * 1024;
+
+    // Highest code point (U+10FFFF); in "C" collation prefix + this sorts after every other extension of prefix
+    private static final String PREFIX_UPPER_BOUND = new String(Character.toChars(Character.MAX_CODE_POINT));
+
+    private static final List<WriteListener> writeListeners = new CopyOnWriteArrayList<>();
+
+    public static void addWriteListener(WriteListener listener) {
+        writeListeners.add(listener);
+    }
+
+    // Tables written inside this thread's open transaction, announced once it commits
+    private static final ThreadLocal<Set<String>> pendingWrites = new ThreadLocal<>();
+
+    /**
+     * Tells the reader router and the listeners (cache invalidation) that
+     * {@code table} changed. Inside {@link #withTransaction} the notice waits
+     * for the commit: fired earlier, a concurrent read could reload and cache
+     * the pre-commit row after the invalidation.
+     */
+    private static void fireWrite(String table) {
+
+        Set<String> pending = pendingWrites.get();
+
+        if (pending != null) {
+            pending.add(table);
+        } else {
+            notifyWrite(table);
+        }
+    }
+
+    private static void notifyWrite(String table) {
+
+        ReaderRouter router = readerRouter;
+
+        if (router != null) {
+            router.onWrite();
+        }
+
+        for (WriteListener listener : writeListeners) {
+            listener.onWrite(table);
+        }
+    }
+
+    private static ConnectionProvider getConnectionProvider() {
+
+        if (connectionProvider != null) {
+            return connectionProvider;
         }
 
         synchronized (PgDataService.class) {
 
-            if (dataSource != null) {
-                return dataSource;
+            if (connectionProvider != null) {
+                return connectionProvider;
             }
 
-            String host = System.getenv("DB_HOST");
-            String port = System.getenv("DB_PORT");
-            String db   = System.getenv("DB_NAME");
-            String user = System.getenv("DB_USER");
-            String pass = System.getenv("DB_PASSWORD");
+            DbSettings settings = DbSettings.fromEnv();
+            DbSettings readerSettings = DbSettings.readerFromEnv();
+
+            readerRouter = readerSettings == null
+                    ? null
+                    : new ReaderRouter(createProvider(readerSettings));
+
+            connectionProvider = createProvider(settings);
+
+            return connectionProvider;
+        }
+    }
+
+    private static ConnectionProvider createProvider(DbSettings settings) {
+
+        String mode = DbSettings.envOrDefault("DB_CONNECTION_MODE", "hikari");
+
+        return switch (mode) {
+            case "hikari" -> new HikariConnectionProvider(settings);
+            case "single" -> new SingleConnectionProvider(settings);
+            default -> throw new IllegalStateException("Unknown DB_CONNECTION_MODE: " + mode);
+        };
+    }
+
+
+    private final boolean writerOnly;
+
+    public PgDataService() {
+        this(false);
+    }
+
+    private PgDataService(boolean writerOnly) {
+        this.writerOnly = writerOnly;
+    }
+
+
+    /**
+     * Reads from the returned view always go to the writer.
+     */
+    @Override
+    public DatabaseService<T> onWriter() {
+        return writerOnly ? this : new PgDataService<>(true);
+    }
+
+
+    /**
+     * @return acquire metrics of the current provider, or {@code null} if none has been created yet.
+     */
+    public static AcquireMetrics acquireMetrics() {
+        ConnectionProvider provider = connectionProvider;
+        return provider == null ? null : provider.acquireMetrics();
+    }
+
+
+    /**
+     * @return connection counts of the current provider, or {@code null} if none has been created yet.
+     */
+    public static PoolStats poolStats() {
+        ConnectionProvider provider = connectionProvider;
+        return provider == null ? null : provider.poolStats();
+    }
+
+
+    /**
+     * @return routing counters of the reader endpoint, or {@code null} if none is configured or created yet.
+     */
+    public static ReaderStats readerStats() {
+        ReaderRouter router = readerRouter;
+        return router == null ? null : router.stats();
+    }
+
+
+    public static int maxConnections() {
+        return getConnectionProvider().maxConnections();
+    }
+
+
+    /**
+     * @return how long a caller waits for a connection before it fails, in milliseconds.
+     */
+    public static long connectionTimeoutMillis() {
+        return DbSettings.connectionTimeoutMillis();
+    }
+
+
+    /**
+     * @return the server-side limit on each statement in milliseconds, or 0 if none is set.
+     */
+    public static long statementTimeoutMillis() {
+        return DbSettings.statementTimeoutMillis();
+    }
+
+
+    /**
+     * Borrows a connection, recording the wait as pool acquire time.
+     */
+    private static Connection acquire() throws SQLException {
+
+        long start = System.nanoTime();
+
+        Connection conn = getConnectionProvider().getConnection();
+
+        InvocationMetrics.current().record(Phase.POOL_ACQUIRE, System.nanoTime() - start);
+
+        return conn;
+    }
+
+
+    /**
+     * Borrows a connection for a read outside a transaction: from the reader
+     * endpoint when one is configured and in rotation, otherwise from the writer.
+     */
+    private Connection acquireForRead() throws SQLException {
+
+        ConnectionProvider writer = getConnectionProvider();
+        ReaderRouter router = writerOnly ? null : readerRouter;
+
+        long start = System.nanoTime();
+
+        Connection conn = router == null ? null : router.acquire();
+
+        if (conn == null) {
+            conn = writer.getConnection();
+        }
+
+        InvocationMetrics.current().record(Phase.POOL_ACQUIRE, System.nanoTime() - start);
+
+        return conn;
+    }
+
+
+    /**
+     * Records a statement's time net of row mapping, plus the mapping itself.
+     */
+    private static void recordQuery(String sql, int binds, long startNanos, long mappingNanos, long rowsRead) {
+
+        InvocationMetrics metrics = InvocationMetrics.current();
+
+        long queryNanos = System.nanoTime() - startNanos - mappingNanos;
+
+        metrics.record(Phase.QUERY, queryNanos);
+        QueryStats.record(sql, binds, queryNanos);
+
+        if (rowsRead > 0) {
+            metrics.record(Phase.ROW_MAPPING, mappingNanos);
+            metrics.addRowsRead(rowsRead);
+        }
+    }
 
-            if (host == null || db == null) {
-                throw new IllegalStateException("DB env vars missing");
+
+    private static void recordWrite(String sql, int binds, long startNanos, long rowsWritten) {
+
+        InvocationMetrics metrics = InvocationMetrics.current();
+
+        long queryNanos = System.nanoTime() - startNanos;
+
+        metrics.record(Phase.QUERY, queryNanos);
+        QueryStats.record(sql, binds, queryNanos);
+        metrics.addRowsWritten(rowsWritten);
+    }
+
+
+    private static String projection(RowMapper<?> mapper) {
+        return mapper instanceof ProjectionMapper<?> projected
+                ? projected.projection()
+                : "*";
+    }
+
+
+    /**
+     * Opens (creating the pool if needed) and returns one connection, so the
+     * TCP/TLS handshake and authentication happen before the first request.
+     */
+    public static void warmUp() {
+
+        try (Connection conn = getConnectionProvider().getConnection()) {
+
+            conn.isValid(2);
+
+        } catch (SQLException e) {
+
+            throw new RuntimeException("Warm-up failed", e);
+        }
+
+        ReaderRouter router = readerRouter;
+
+        if (router == null) {
+            return;
+        }
+
+        // Also runs the first reader health check; a reader that is down is not fatal
+        Connection readerConn = router.acquire();
+
+        if (readerConn != null) {
+            try {
+                readerConn.close();
+            } catch (SQLException ignored) {
+                // Nothing to hand back
             }
+        }
+    }
 
-            String jdbcUrl =
-                    "jdbc:postgresql://" + host + ":" + port + "/" + db;
 
-            HikariConfig config = new HikariConfig();
+    /**
+     * Replaces the connection provider, closing the current one; used to run
+     * the data layer on another database, such as the load test's embedded one.
+     */
+    public static void useConnectionProvider(ConnectionProvider provider) {
+        useConnectionProviders(provider, null);
+    }
+
 
-            config.setJdbcUrl(jdbcUrl);
-            config.setUsername(user);
-            config.setPassword(pass);
+    /**
+     * Like {@link #useConnectionProvider}, with reads routed to {@code reader}
+     * (when not {@code null}) as they would be to {@code DB_READER_HOST}.
+     */
+    public static void useConnectionProviders(ConnectionProvider writer, ConnectionProvider reader) {
 
-            config.setMaximumPoolSize(2);
-            config.setMinimumIdle(1);
-            config.setConnectionTimeout(5000);
-            config.setInitializationFailTimeout(-1);
+        synchronized (PgDataService.class) {
 
-            dataSource = new HikariDataSource(config);
+            closeConnectionProvider();
 
-            return dataSource;
+            readerRouter = reader == null ? null : new ReaderRouter(reader);
+            connectionProvider = writer;
+        }
+    }
+
+
+    /**
+     * Closes the connection provider and all its connections. The next data access
+     * lazily creates a new one; used before a snapshot, where open sockets cannot survive.
+     */
+    public static void closeConnectionProvider() {
+
+        synchronized (PgDataService.class) {
+
+            if (readerRouter != null) {
+                readerRouter.close();
+                readerRouter = null;
+            }
+
+            if (connectionProvider != null) {
+                connectionProvider.close();
+                connectionProvider = null;
+            }
         }
     }
 
@@ -63,7 +344,11 @@ public class PgDataService<T> implements  DatabaseService<T> {
     @Override
     public void withTransaction(TransactionCallback callback) {
 
-        try (Connection conn = getDataSource().getConnection()) {
+        Set<String> outer = pendingWrites.get();
+        Set<String> written = new LinkedHashSet<>();
+        pendingWrites.set(written);
+
+        try (Connection conn = acquire()) {
 
             conn.setAutoCommit(false);
 
@@ -78,7 +363,11 @@ public class PgDataService<T> implements  DatabaseService<T> {
 
         } catch (SQLException e) {
             throw new RuntimeException("Transaction error", e);
+        } finally {
+            restorePendingWrites(outer);
         }
+
+        written.forEach(PgDataService::notifyWrite);
     }
 
 
@@ -88,7 +377,7 @@ public class PgDataService<T> implements  DatabaseService<T> {
                        Map<String, Object> values,
                        LambdaLogger logger) {
 
-        try (Connection conn = getDataSource().getConnection()) {
+        try (Connection conn = acquire()) {
 
             insert(conn, table, values, logger);
 
@@ -109,43 +398,293 @@ public class PgDataService<T> implements  DatabaseService<T> {
             throw new IllegalArgumentException("Empty values");
         }
 
-        StringBuilder cols = new StringBuilder();
-        StringBuilder qms  = new StringBuilder();
-
-        values.forEach((k,v)->{
-            cols.append(k).append(",");
-            qms.append("?,");
-        });
+        SqlTemplates.Template template =
+                SqlTemplates.insert(table, values.keySet());
 
-        String sql = String.format(
-                "INSERT INTO %s (%s) VALUES (%s)",
-                table,
-                cols.substring(0, cols.length()-1),
-                qms.substring(0, qms.length()-1)
-        );
+        long start = System.nanoTime();
 
         try (PreparedStatement ps =
-                     conn.prepareStatement(sql)) {
+                     conn.prepareStatement(template.sql)) {
 
             int i = 1;
 
-            for (Object v : values.values()) {
-                ps.setObject(i++, v);
+            for (String col : template.columns) {
+                ps.setObject(i++, values.get(col));
             }
 
-            ps.executeUpdate();
+            recordWrite(template.sql, template.columns.length, start, ps.executeUpdate());
         }
+
+        fireWrite(table);
     }
 
 
 
+    @Override
+    public BulkLoadResult insertBatch(String table,
+                                      List<Map<String, Object>> rows) {
+
+        try (Connection conn = acquire()) {
+
+            return insertBatch(conn, table, rows);
+
+        } catch (SQLException e) {
+
+            throw new RuntimeException("Batch insert failed", e);
+        }
+    }
+
+
+    @Override
+    public BulkLoadResult insertBatch(Connection conn,
+                                      String table,
+                                      List<Map<String, Object>> rows) throws SQLException {
+
+        if (rows == null || rows.isEmpty()) {
+            throw new IllegalArgumentException("Empty rows");
+        }
+
+        long start = System.nanoTime();
+
+        SqlTemplates.Template template =
+                SqlTemplates.insert(table, rows.get(0).keySet());
+
+        long written = 0;
+
+        try (PreparedStatement ps =
+                     conn.prepareStatement(template.sql)) {
+
+            int pending = 0;
+
+            for (Map<String, Object> row : rows) {
+
+                if (row.size() != template.columns.length) {
+                    throw new IllegalArgumentException("All rows must have the same columns");
+                }
+
+                int i = 1;
+
+                for (String col : template.columns) {
+                    if (!row.containsKey(col)) {
+                        throw new IllegalArgumentException("All rows must have the same columns");
+                    }
+                    ps.setObject(i++, row.get(col));
+                }
+
+                ps.addBatch();
+
+                if (++pending == BATCH_SIZE) {
+                    written += sum(ps.executeBatch());
+                    pending = 0;
+                }
+            }
+
+            if (pending > 0) {
+                written += sum(ps.executeBatch());
+            }
+        }
+
+        recordWrite(template.sql, template.columns.length, start, written);
+
+        fireWrite(table);
+
+        return new BulkLoadResult(written, (System.nanoTime() - start) / 1_000_000);
+    }
+
+
+    @Override
+    public BulkLoadResult copyIn(String table,
+                                 List<String> columns,
+                                 Iterator<Object[]> rows) {
+
+        try (Connection conn = acquire()) {
+
+            return copyIn(conn, table, columns, rows);
+
+        } catch (SQLException e) {
+
+            throw new RuntimeException("Copy failed", e);
+        }
+    }
+
+
+    @Override
+    public BulkLoadResult copyIn(Connection conn,
+                                 String table,
+                                 List<String> columns,
+                                 Iterator<Object[]> rows) throws SQLException {
+
+        long start = System.nanoTime();
+
+        String sql = "COPY " + table +
+                " (" + String.join(",", columns) + ")" +
+                " FROM STDIN WITH (FORMAT csv)";
+
+        CopyIn copy = conn.unwrap(BaseConnection.class)
+                .getCopyAPI()
+                .copyIn(sql);
+
+        try {
+
+            CsvRowEncoder encoder = new CsvRowEncoder(COPY_BUFFER_BYTES);
+
+            while (rows.hasNext()) {
+
+                encoder.append(rows.next());
+
+                if (encoder.size() >= COPY_BUFFER_BYTES) {
+                    encoder.flushTo(copy);
+                }
+            }
+
+            encoder.flushTo(copy);
+
+            long written = copy.endCopy();
+
+            recordWrite(sql, 0, start, written);
+
+            fireWrite(table);
+
+            return new BulkLoadResult(written, (System.nanoTime() - start) / 1_000_000);
+
+        } finally {
+
+            if (copy.isActive()) {
+                copy.cancelCopy();
+            }
+        }
+    }
+
+
+    @Override
+    public BulkLoadResult upsert(String table,
+                                 String conflictColumn,
+                                 List<Map<String, Object>> rows) {
+
+        if (rows == null || rows.isEmpty()) {
+            throw new IllegalArgumentException("Empty rows");
+        }
+
+        return withTransactionReturn(conn -> upsert(conn, table, conflictColumn, rows));
+    }
+
+
+    @Override
+    public BulkLoadResult upsert(Connection conn,
+                                 String table,
+                                 String conflictColumn,
+                                 List<Map<String, Object>> rows) throws SQLException {
+
+        if (rows == null || rows.isEmpty()) {
+            throw new IllegalArgumentException("Empty rows");
+        }
+
+        long start = System.nanoTime();
+
+        // Last write per key wins; ON CONFLICT cannot touch the same row twice in one statement
+        Map<Object, Map<String, Object>> latest = new LinkedHashMap<>();
+
+        for (Map<String, Object> row : rows) {
+
+            Object key = row.get(conflictColumn);
+
+            if (key == null) {
+                throw new IllegalArgumentException("Every row needs a value for " + conflictColumn);
+            }
+
+            latest.put(key, row);
+        }
+
+        List<Map<String, Object>> unique = new ArrayList<>(latest.values());
+        Set<String> columns = unique.get(0).keySet();
+
+        int maxRows = Math.max(1, Math.min(BATCH_SIZE, MAX_BIND_PARAMETERS / columns.size()));
+
+        long written = 0;
+
+        for (int from = 0; from < unique.size(); ) {
+
+            int size = upsertChunkSize(unique.size() - from, maxRows);
+
+            List<Map<String, Object>> chunk = unique.subList(from, from + size);
+            from += size;
+
+            SqlTemplates.Template template =
+                    SqlTemplates.upsert(table, columns, conflictColumn, chunk.size());
+
+            try (PreparedStatement ps =
+                         conn.prepareStatement(template.sql)) {
+
+                int i = 1;
+
+                for (Map<String, Object> row : chunk) {
+
+                    if (row.size() != template.columns.length) {
+                        throw new IllegalArgumentException("All rows must have the same columns");
+                    }
+
+                    for (String col : template.columns) {
+                        if (!row.containsKey(col)) {
+                            throw new IllegalArgumentException("All rows must have the same columns");
+                        }
+                        ps.setObject(i++, row.get(col));
+                    }
+                }
+
+                long statementStart = System.nanoTime();
+
+                int count = ps.executeUpdate();
+
+                recordWrite(template.sql, i - 1, statementStart, count);
+
+                written += count;
+            }
+        }
+
+        fireWrite(table);
+
+        return new BulkLoadResult(written, (System.nanoTime() - start) / 1_000_000);
+    }
+
+
+    /**
+     * Largest power of ten (1, 10, 100, ...) of at most {@code remaining} and
+     * {@code maxRows} rows, so upserts of any batch size share a few statement
+     * shapes instead of one per size; each shape costs a template, a histogram
+     * and a server-side prepare.
+     */
+    private static int upsertChunkSize(int remaining, int maxRows) {
+
+        int size = 1;
+
+        while (size * 10 <= remaining && size * 10 <= maxRows) {
+            size *= 10;
+        }
+
+        return size;
+    }
+
+
+    private static long sum(int[] counts) {
+
+        long total = 0;
+
+        for (int c : counts) {
+            // SUCCESS_NO_INFO (-2) is reported for rewritten batches; count the row anyway
+            total += c >= 0 ? c : 1;
+        }
+
+        return total;
+    }
+
+
     @Override
     public void update(String table,
                        Map<String,Object> values,
                        String where,
                        Object... params) {
 
-        try (Connection conn = getDataSource().getConnection()) {
+        try (Connection conn = acquire()) {
 
             update(conn, table, values, where, params);
 
@@ -163,34 +702,32 @@ public class PgDataService<T> implements  DatabaseService<T> {
                        String where,
                        Object... params) throws SQLException {
 
-        StringBuilder set = new StringBuilder();
+        if (values == null || values.isEmpty()) {
+            throw new IllegalArgumentException("Empty values");
+        }
 
-        values.forEach((k,v)->
-                set.append(k).append("=?,")
-        );
+        SqlTemplates.Template template =
+                SqlTemplates.update(table, values.keySet(), where);
 
-        String sql = String.format(
-                "UPDATE %s SET %s WHERE %s",
-                table,
-                set.substring(0, set.length()-1),
-                where
-        );
+        long start = System.nanoTime();
 
         try (PreparedStatement ps =
-                     conn.prepareStatement(sql)) {
+                     conn.prepareStatement(template.sql)) {
 
             int i = 1;
 
-            for (Object v : values.values()) {
-                ps.setObject(i++, v);
+            for (String col : template.columns) {
+                ps.setObject(i++, values.get(col));
             }
 
             for (Object p : params) {
                 ps.setObject(i++, p);
             }
 
-            ps.executeUpdate();
+            recordWrite(template.sql, template.columns.length + params.length, start, ps.executeUpdate());
         }
+
+        fireWrite(table);
     }
 
 
@@ -200,23 +737,28 @@ public class PgDataService<T> implements  DatabaseService<T> {
                   Object pkVal,
                   RowMapper<T> mapper) {
 
-        String sql =
-                "SELECT * FROM " + table +
-                        " WHERE " + pkCol + "=?";
+        String sql = SqlTemplates.read(table, projection(mapper), pkCol);
 
-        try (Connection conn = getDataSource().getConnection();
+        try (Connection conn = acquireForRead();
              PreparedStatement ps =
                      conn.prepareStatement(sql)) {
 
+            long start = System.nanoTime();
+
             ps.setObject(1, pkVal);
 
             try (ResultSet rs = ps.executeQuery()) {
 
                 if (rs.next()) {
-                    return mapper.mapRow(rs);
+                    long mapStart = System.nanoTime();
+                    T row = mapper.mapRow(rs);
+                    recordQuery(sql, 1, start, System.nanoTime() - mapStart, 1);
+                    return row;
                 }
             }
 
+            recordQuery(sql, 1, start, 0, 0);
+
         } catch (Exception e) {
 
             throw new RuntimeException("Read failed", e);
@@ -227,39 +769,344 @@ public class PgDataService<T> implements  DatabaseService<T> {
 
 
     @Override
-    public List<T> readPaginated(
+    public List<T> readByKeys(String table,
+                              String keyCol,
+                              String keyType,
+                              Collection<?> keys,
+                              RowMapper<T> mapper) {
+
+        if (keys == null || keys.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        String sql = SqlTemplates.readByKeys(table, projection(mapper), keyCol);
+
+        List<T> results = new ArrayList<>(keys.size());
+
+        try (Connection conn = acquireForRead();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+
+            long start = System.nanoTime();
+            long mappingNanos = 0;
+
+            Array array = conn.createArrayOf(keyType, keys.toArray());
+
+            try {
+                ps.setArray(1, array);
+
+                try (ResultSet rs = ps.executeQuery()) {
+
+                    while (rs.next()) {
+                        long mapStart = System.nanoTime();
+                        results.add(mapper.mapRow(rs));
+                        mappingNanos += System.nanoTime() - mapStart;
+                    }
+                }
+
+                recordQuery(sql, 1, start, mappingNanos, results.size());
+
+            } finally {
+                array.free();
+            }
+
+        } catch (Exception e) {
+
+            throw new RuntimeException("Multi-key read failed", e);
+        }
+
+        return results;
+    }
+
+
+    @Override
+    public Page<T> readPaginated(
             String table,
             int pageSize,
             int pageNumber,
             RowMapper<T> mapper
     ) {
 
-        int offset = (pageNumber - 1) * pageSize;
+        // Widened so a large page number cannot wrap around to a negative offset
+        long offset = (pageNumber - 1L) * pageSize;
 
-        String sql =
-                "SELECT * FROM " + table +
-                        " LIMIT ? OFFSET ?";
+        String sql = SqlTemplates.readPaginated(table, projection(mapper));
 
-        List<T> results = new ArrayList<>();
+        List<T> results = new ArrayList<>(pageSize + 1);
 
-        try (Connection conn = getDataSource().getConnection();
+        try (Connection conn = acquireForRead();
              PreparedStatement ps = conn.prepareStatement(sql)) {
 
-            ps.setInt(1, pageSize);
-            ps.setInt(2, offset);
+            long start = System.nanoTime();
+            long mappingNanos = 0;
+
+            // One look-ahead row tells whether another page follows
+            ps.setInt(1, pageSize + 1);
+            ps.setLong(2, offset);
 
             try (ResultSet rs = ps.executeQuery()) {
 
                 while (rs.next()) {
+                    long mapStart = System.nanoTime();
                     results.add(mapper.mapRow(rs));
+                    mappingNanos += System.nanoTime() - mapStart;
                 }
             }
 
+            recordQuery(sql, 2, start, mappingNanos, results.size());
+
         } catch (Exception e) {
             throw new RuntimeException("Paginated read failed", e);
         }
 
-        return results;
+        return Page.fromLookAhead(results, pageSize);
+    }
+
+
+    @Override
+    public Page<T> readAfter(
+            String table,
+            String keyCol,
+            Object lastKey,
+            int pageSize,
+            RowMapper<T> mapper
+    ) {
+
+        String sql = SqlTemplates.readAfter(table, projection(mapper), keyCol, lastKey != null);
+
+        List<T> results = new ArrayList<>(pageSize + 1);
+
+        try (Connection conn = acquireForRead();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+
+            long start = System.nanoTime();
+            long mappingNanos = 0;
+
+            int i = 1;
+
+            if (lastKey != null) {
+                ps.setObject(i++, lastKey);
+            }
+
+            ps.setInt(i, pageSize + 1);
+
+            try (ResultSet rs = ps.executeQuery()) {
+
+                while (rs.next()) {
+                    long mapStart = System.nanoTime();
+                    results.add(mapper.mapRow(rs));
+                    mappingNanos += System.nanoTime() - mapStart;
+                }
+            }
+
+            recordQuery(sql, i, start, mappingNanos, results.size());
+
+        } catch (Exception e) {
+            throw new RuntimeException("Keyset read failed", e);
+        }
+
+        return Page.fromLookAhead(results, pageSize);
+    }
+
+
+    @Override
+    public Page<T> readByPrefix(
+            String table,
+            String column,
+            String prefix,
+            String keyCol,
+            Object lastValue,
+            Object lastKey,
+            int pageSize,
+            RowMapper<T> mapper
+    ) {
+
+        if (prefix == null || prefix.isEmpty()) {
+            throw new IllegalArgumentException("Search prefix must not be empty");
+        }
+
+        String sql = SqlTemplates.readByPrefix(table, projection(mapper), column, keyCol, lastValue != null);
+
+        List<T> results = new ArrayList<>(pageSize + 1);
+
+        try (Connection conn = acquireForRead();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+
+            long start = System.nanoTime();
+            long mappingNanos = 0;
+
+            int i = 1;
+
+            ps.setString(i++, prefix);
+            ps.setString(i++, prefix + PREFIX_UPPER_BOUND);
+            // The range already bounds the scan; LIKE keeps matches exact should a value contain the bound itself
+            ps.setString(i++, escapeLike(prefix) + "%");
+
+            if (lastValue != null) {
+                ps.setObject(i++, lastValue);
+                ps.setObject(i++, lastKey);
+            }
+
+            ps.setInt(i, pageSize + 1);
+
+            try (ResultSet rs = ps.executeQuery()) {
+
+                while (rs.next()) {
+                    long mapStart = System.nanoTime();
+                    results.add(mapper.mapRow(rs));
+                    mappingNanos += System.nanoTime() - mapStart;
+                }
+            }
+
+            recordQuery(sql, i, start, mappingNanos, results.size());
+
+        } catch (Exception e) {
+            throw new RuntimeException("Prefix search failed", e);
+        }
+
+        return Page.fromLookAhead(results, pageSize);
+    }
+
+    /**
+     * Escapes LIKE wildcards with the default escape character, so the prefix matches literally.
+     */
+    private static String escapeLike(String value) {
+        StringBuilder escaped = new StringBuilder(value.length() + 8);
+
+        for (int i = 0; i < value.length(); i++) {
+            char ch = value.charAt(i);
+
+            if (ch == '\\' || ch == '%' || ch == '_') {
+                escaped.append('\\');
+            }
+            escaped.append(ch);
+        }
+
+        return escaped.toString();
+    }
+
+
+    @Override
+    public long estimateRowCount(String table) {
+
+        String sql = SqlTemplates.estimateRowCount();
+
+        try (Connection conn = acquireForRead();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+
+            long start = System.nanoTime();
+
+            ps.setString(1, table);
+
+            try (ResultSet rs = ps.executeQuery()) {
+
+                recordQuery(sql, 1, start, 0, 0);
+
+                if (rs.next()) {
+                    long estimate = rs.getLong(1);
+                    return estimate < 0 ? -1 : estimate;
+                }
+            }
+
+        } catch (SQLException e) {
+            throw new RuntimeException("Row estimate failed", e);
+        }
+
+        return -1;
+    }
+
+
+    @Override
+    public long countRows(String table) {
+
+        String sql = SqlTemplates.countRows(table);
+
+        try (Connection conn = acquireForRead();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+
+            long start = System.nanoTime();
+
+            try (ResultSet rs = ps.executeQuery()) {
+
+                rs.next();
+                recordQuery(sql, 0, start, 0, 0);
+                return rs.getLong(1);
+            }
+
+        } catch (SQLException e) {
+            throw new RuntimeException("Row count failed", e);
+        }
+    }
+
+
+    @Override
+    public void streamAfter(
+            String table,
+            String keyCol,
+            Object lastKey,
+            int limit,
+            int fetchSize,
+            RowMapper<T> mapper,
+            RowCallback<T> callback
+    ) {
+
+        String sql = SqlTemplates.streamAfter(table, projection(mapper), keyCol, lastKey != null, limit > 0);
+
+        try (Connection conn = acquireForRead()) {
+
+            // pgjdbc only honours fetchSize (server-side cursor) outside autocommit
+            conn.setAutoCommit(false);
+
+            try (PreparedStatement ps = conn.prepareStatement(sql)) {
+
+                ps.setFetchSize(fetchSize);
+
+                int i = 1;
+
+                if (lastKey != null) {
+                    ps.setObject(i++, lastKey);
+                }
+
+                if (limit > 0) {
+                    ps.setInt(i++, limit);
+                }
+
+                long start = System.nanoTime();
+                long mappingNanos = 0;
+                long callbackNanos = 0;
+                long rows = 0;
+
+                try (ResultSet rs = ps.executeQuery()) {
+
+                    while (rs.next()) {
+                        long mapStart = System.nanoTime();
+                        T row = mapper.mapRow(rs);
+                        long mapEnd = System.nanoTime();
+
+                        callback.accept(row);
+
+                        mappingNanos += mapEnd - mapStart;
+                        callbackNanos += System.nanoTime() - mapEnd;
+                        rows++;
+                    }
+                }
+
+                // The callback records its own phases
+                recordQuery(sql, i - 1, start + callbackNanos, mappingNanos, rows);
+
+                conn.commit();
+
+            } catch (Exception e) {
+
+                conn.rollback();
+                throw new RuntimeException("Streaming read failed", e);
+
+            } finally {
+                conn.setAutoCommit(true);
+            }
+
+        } catch (SQLException e) {
+            throw new RuntimeException("Streaming read error", e);
+        }
     }
 
 
@@ -269,7 +1116,7 @@ public class PgDataService<T> implements  DatabaseService<T> {
                                          String where,
                                          Object[] params) {
 
-        try (Connection conn = getDataSource().getConnection()) {
+        try (Connection conn = acquireForRead()) {
 
             return readColumnsByCondition(
                     conn, table, cols, where, params);
@@ -290,14 +1137,13 @@ public class PgDataService<T> implements  DatabaseService<T> {
                                          Object[] params)
             throws SQLException {
 
-        String sql =
-                "SELECT " + cols +
-                        " FROM " + table +
-                        " WHERE " + where;
+        String sql = SqlTemplates.readColumns(table, cols, where);
 
         try (PreparedStatement ps =
                      conn.prepareStatement(sql)) {
 
+            long start = System.nanoTime();
+
             int i=1;
 
             for (Object p: params) {
@@ -306,6 +1152,8 @@ public class PgDataService<T> implements  DatabaseService<T> {
 
             try (ResultSet rs = ps.executeQuery()) {
 
+                recordQuery(sql, params.length, start, 0, 0);
+
                 if (rs.next()) {
                     return rs.getObject(1);
                 }
@@ -321,42 +1169,49 @@ public class PgDataService<T> implements  DatabaseService<T> {
                        String where,
                        Object... params) {
 
-        String sql =
-                "DELETE FROM " + table +
-                        " WHERE " + where;
+        String sql = SqlTemplates.delete(table, where);
 
-        try (Connection conn = getDataSource().getConnection();
+        try (Connection conn = acquire();
              PreparedStatement ps =
                      conn.prepareStatement(sql)) {
 
+            long start = System.nanoTime();
+
             int i=1;
 
             for (Object p: params) {
                 ps.setObject(i++, p);
             }
 
-            ps.executeUpdate();
+            recordWrite(sql, params.length, start, ps.executeUpdate());
 
         } catch (SQLException e) {
 
             throw new RuntimeException("Delete failed", e);
         }
+
+        fireWrite(table);
     }
 
 
     public <R> R withTransactionReturn(
             TransactionCallbackWithReturn<R> cb) {
 
+        Set<String> outer = pendingWrites.get();
+        Set<String> written = new LinkedHashSet<>();
+        pendingWrites.set(written);
+
+        R result;
+
         try (Connection conn =
-                     getDataSource().getConnection()) {
+                     acquire()) {
 
             conn.setAutoCommit(false);
 
             try {
 
-                R result = cb.execute(conn);
+                result = cb.execute(conn);
                 conn.commit();
-                return result;
 
             } catch (Exception e) {
 
@@ -367,6 +1222,19 @@ public class PgDataService<T> implements  DatabaseService<T> {
         } catch (SQLException e) {
 
             throw new RuntimeException(e);
+        } finally {
+            restorePendingWrites(outer);
+        }
+
+        written.forEach(PgDataService::notifyWrite);
+        return result;
+    }
+
+    private static void restorePendingWrites(Set<String> outer) {
+        if (outer == null) {
+            pendingWrites.remove();
+        } else {
+            pendingWrites.set(outer);
         }
     }
 
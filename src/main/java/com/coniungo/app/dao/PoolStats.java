@@ -0,0 +1,20 @@
+package com.coniungo.app.dao;
+
+import lombok.*;
+
+/**
+ * Point-in-time connection counts of a {@link ConnectionProvider}.
+ */
+@Data
+@AllArgsConstructor
+public class PoolStats {
+    private int active;
+    private int idle;
+    private int pending;
+    private int total;
+
+    @Override
+    public String toString() {
+        return "active=" + active + " idle=" + idle + " pending=" + pending + " total=" + total;
+    }
+}
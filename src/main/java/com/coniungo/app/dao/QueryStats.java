@@ -0,0 +1,123 @@
+package com.coniungo.app.dao;
+
+import com.amazonaws.services.lambda.runtime.LambdaLogger;
+import com.amazonaws.services.lambda.runtime.LambdaRuntime;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Container-wide latency histograms per SQL template, plus the slow-query log.
+ * <p>
+ * Statements are keyed by their template text from {@link SqlTemplates}, which
+ * holds placeholders only, so no parameter value is ever recorded or logged.
+ * Recording is wait-free; {@link #reportIfDue} logs one {@code QUERY_STATS}
+ * line per template with the interval's percentiles, and a {@code POOL_STATS}
+ * line, every {@code DB_QUERY_STATS_INTERVAL_SECONDS} (0 disables).
+ * Statements slower than {@code DB_SLOW_QUERY_MS} (0 disables) are logged
+ * as they complete.
+ */
+public final class QueryStats {
+
+    // Same bound as SqlTemplates, so every cached shape gets a histogram
+    private static final int MAX_TEMPLATES = 1024;
+
+    // Microseconds; longer statements are clamped, which only affects the max
+    private static final long HIGHEST_TRACKABLE_MICROS = 60_000_000L;
+    private static final int SIGNIFICANT_DIGITS = 2;
+
+    private static final long SLOW_QUERY_NANOS =
+            DbSettings.envLong("DB_SLOW_QUERY_MS", 500) * 1_000_000L;
+
+    private static final long REPORT_INTERVAL_NANOS =
+            DbSettings.envLong("DB_QUERY_STATS_INTERVAL_SECONDS", 60) * 1_000_000_000L;
+
+    private static final ConcurrentHashMap<String, TemplateStats> stats = new ConcurrentHashMap<>();
+
+    private static volatile long lastReportNanos = System.nanoTime();
+
+    private QueryStats() {
+    }
+
+    private static final class TemplateStats {
+        final Recorder recorder = new Recorder(HIGHEST_TRACKABLE_MICROS, SIGNIFICANT_DIGITS);
+
+        // Recycled between reports; only touched under the report lock
+        Histogram interval;
+    }
+
+    static void record(String sql, int binds, long nanos) {
+
+        TemplateStats template = stats.get(sql);
+
+        if (template == null && stats.size() < MAX_TEMPLATES) {
+            template = stats.computeIfAbsent(sql, key -> new TemplateStats());
+        }
+
+        if (template != null) {
+            template.recorder.recordValue(Math.min(nanos / 1_000, HIGHEST_TRACKABLE_MICROS));
+        }
+
+        if (SLOW_QUERY_NANOS > 0 && nanos >= SLOW_QUERY_NANOS) {
+            LambdaRuntime.getLogger().log("SLOW_QUERY durationMs=" + nanos / 1_000_000
+                    + " binds=" + binds
+                    + " sql=" + sql);
+        }
+    }
+
+    /**
+     * Logs and resets the per-template histograms if the report interval has elapsed.
+     */
+    public static void reportIfDue(LambdaLogger logger) {
+
+        if (REPORT_INTERVAL_NANOS <= 0 || System.nanoTime() - lastReportNanos < REPORT_INTERVAL_NANOS) {
+            return;
+        }
+
+        synchronized (QueryStats.class) {
+
+            if (System.nanoTime() - lastReportNanos < REPORT_INTERVAL_NANOS) {
+                return;
+            }
+
+            lastReportNanos = System.nanoTime();
+            report(logger);
+        }
+    }
+
+    private static void report(LambdaLogger logger) {
+
+        for (Map.Entry<String, TemplateStats> entry : stats.entrySet()) {
+
+            TemplateStats template = entry.getValue();
+            template.interval = template.recorder.getIntervalHistogram(template.interval);
+
+            Histogram h = template.interval;
+
+            if (h.getTotalCount() == 0) {
+                continue;
+            }
+
+            logger.log("QUERY_STATS count=" + h.getTotalCount()
+                    + " p50Us=" + h.getValueAtPercentile(50)
+                    + " p90Us=" + h.getValueAtPercentile(90)
+                    + " p99Us=" + h.getValueAtPercentile(99)
+                    + " maxUs=" + h.getMaxValue()
+                    + " sql=" + entry.getKey());
+        }
+
+        PoolStats pool = PgDataService.poolStats();
+
+        if (pool != null) {
+            logger.log("POOL_STATS " + pool + " " + PgDataService.acquireMetrics());
+        }
+
+        ReaderStats reader = PgDataService.readerStats();
+
+        if (reader != null) {
+            logger.log("READER_STATS " + reader);
+        }
+    }
+}
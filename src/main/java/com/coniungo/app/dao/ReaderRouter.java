@@ -0,0 +1,167 @@
+package com.coniungo.app.dao;
+
+import com.amazonaws.services.lambda.runtime.LambdaRuntime;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Decides, per read, whether the reader endpoint may serve it.
+ * <p>
+ * The reader is used only while its last health check succeeded with a
+ * replication lag within {@code DB_READER_MAX_LAG_MS}. Checks run inline on
+ * the first read after {@code DB_READER_CHECK_INTERVAL_MS} has elapsed, one
+ * caller at a time, so there is no background thread to freeze or resume.
+ * A reader that cannot hand out a connection is marked down until the next
+ * check, and every read in between goes to the writer.
+ * <p>
+ * After this container writes, reads stay on the writer for
+ * {@code DB_READER_PIN_AFTER_WRITE_MS} (default: the maximum lag), so a read
+ * cache refilled right after a write does not pick up the pre-write row.
+ * <p>
+ * Lag comes from {@code aurora_replica_status()} on Aurora, where replicas
+ * share storage instead of replaying WAL, and from the WAL replay position
+ * and timestamp elsewhere. Either way it is the lag of the one replica the
+ * check's connection landed on.
+ */
+final class ReaderRouter {
+
+    private final ConnectionProvider reader;
+    private final long maxLagMillis;
+    private final long checkIntervalNanos;
+    private final long pinAfterWriteNanos;
+
+    private final AtomicLong nextCheckNanos = new AtomicLong(System.nanoTime());
+    // Optimistic until the first check, which runs on the first read
+    private volatile boolean healthy = true;
+    private volatile long lagMillis = -1;
+    private volatile long pinnedUntilNanos;
+
+    // Detected by the first check that reaches the reader
+    private volatile Boolean aurora;
+
+    private final LongAdder readerReads = new LongAdder();
+    private final LongAdder writerReads = new LongAdder();
+    private final LongAdder readerFailures = new LongAdder();
+
+    ReaderRouter(ConnectionProvider reader) {
+        this.reader = reader;
+        this.maxLagMillis = DbSettings.envLong("DB_READER_MAX_LAG_MS", 1000);
+        this.checkIntervalNanos = DbSettings.envLong("DB_READER_CHECK_INTERVAL_MS", 5000) * 1_000_000L;
+        this.pinAfterWriteNanos = DbSettings.envLong("DB_READER_PIN_AFTER_WRITE_MS", maxLagMillis) * 1_000_000L;
+    }
+
+    /**
+     * Borrows a reader connection for one read.
+     *
+     * @return the connection, or {@code null} if the read should go to the writer.
+     */
+    Connection acquire() {
+
+        long now = System.nanoTime();
+
+        if (now - pinnedUntilNanos < 0) {
+            writerReads.increment();
+            return null;
+        }
+
+        long due = nextCheckNanos.get();
+
+        if (now - due >= 0 && nextCheckNanos.compareAndSet(due, now + checkIntervalNanos)) {
+            check();
+        }
+
+        if (!healthy) {
+            writerReads.increment();
+            return null;
+        }
+
+        try {
+            Connection conn = reader.getConnection();
+            readerReads.increment();
+            return conn;
+
+        } catch (SQLException e) {
+
+            markDown("acquire failed: " + e.getMessage());
+            writerReads.increment();
+            return null;
+        }
+    }
+
+    /**
+     * Keeps reads on the writer until the reader has had time to replay this container's write.
+     */
+    void onWrite() {
+        if (pinAfterWriteNanos > 0) {
+            pinnedUntilNanos = System.nanoTime() + pinAfterWriteNanos;
+        }
+    }
+
+    private void check() {
+
+        try (Connection conn = reader.getConnection()) {
+
+            if (aurora == null) {
+                aurora = queryLong(conn, SqlTemplates.isAurora()) > 0;
+            }
+
+            long lag = queryLong(conn, aurora ? SqlTemplates.auroraReplicaLagMillis() : SqlTemplates.replicaLagMillis());
+
+            lagMillis = lag;
+
+            if (lag > maxLagMillis) {
+                markDown("lag " + lag + " ms exceeds " + maxLagMillis + " ms");
+                return;
+            }
+
+            if (!healthy) {
+                LambdaRuntime.getLogger().log("INFO: Reader back in rotation, lag " + lag + " ms");
+            }
+
+            healthy = true;
+
+        } catch (SQLException e) {
+
+            markDown("health check failed: " + e.getMessage());
+        }
+    }
+
+    private static long queryLong(Connection conn, String sql) throws SQLException {
+
+        try (PreparedStatement ps = conn.prepareStatement(sql);
+             ResultSet rs = ps.executeQuery()) {
+
+            return rs.next() ? rs.getLong(1) : 0;
+        }
+    }
+
+    private void markDown(String reason) {
+
+        readerFailures.increment();
+
+        // Repeats once per check interval while the reader stays down
+        LambdaRuntime.getLogger().log("WARN: Reader out of rotation, routing reads to the writer: " + reason);
+
+        healthy = false;
+        nextCheckNanos.set(System.nanoTime() + checkIntervalNanos);
+    }
+
+    ReaderStats stats() {
+        return new ReaderStats(
+                healthy,
+                lagMillis,
+                readerReads.sum(),
+                writerReads.sum(),
+                readerFailures.sum(),
+                reader.poolStats());
+    }
+
+    void close() {
+        reader.close();
+    }
+}
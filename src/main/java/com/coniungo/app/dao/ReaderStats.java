@@ -0,0 +1,27 @@
+package com.coniungo.app.dao;
+
+import lombok.*;
+
+/**
+ * Routing counters of the reader endpoint since the container started.
+ */
+@Data
+@AllArgsConstructor
+public class ReaderStats {
+    private boolean healthy;
+
+    // From the last health check; -1 before the first one
+    private long lagMillis;
+
+    private long readerReads;
+    private long writerReads;
+    private long readerFailures;
+    private PoolStats pool;
+
+    @Override
+    public String toString() {
+        return "healthy=" + healthy + " lagMs=" + lagMillis
+                + " readerReads=" + readerReads + " writerReads=" + writerReads
+                + " readerFailures=" + readerFailures + " " + pool;
+    }
+}
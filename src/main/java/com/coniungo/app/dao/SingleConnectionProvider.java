@@ -0,0 +1,210 @@
+package com.coniungo.app.dao;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.Properties;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Lean provider holding one physical connection, for functions that only
+ * ever serve one request at a time.
+ * <p>
+ * There are no background threads: the connection is opened on first use,
+ * validated only after it has been idle for {@code DB_VALIDATION_INTERVAL_MS},
+ * and transparently reopened when validation fails or it was found broken.
+ * Callers borrow it exclusively; a concurrent borrower waits up to
+ * {@code DB_CONNECTION_TIMEOUT_MS}.
+ */
+public class SingleConnectionProvider implements ConnectionProvider {
+
+    private final DbSettings settings;
+    private final long validationIntervalNanos;
+    private final long acquireTimeoutMillis;
+
+    private final Semaphore lease = new Semaphore(1, true);
+    private final AcquireMetrics metrics = new AcquireMetrics();
+
+    // Guarded by lease
+    private Connection physical;
+    private long lastReleasedNanos;
+
+    SingleConnectionProvider(DbSettings settings) {
+        this.settings = settings;
+        this.validationIntervalNanos = DbSettings.envLong("DB_VALIDATION_INTERVAL_MS", 30_000) * 1_000_000L;
+        this.acquireTimeoutMillis = DbSettings.connectionTimeoutMillis();
+        metrics.recordInit(0);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+
+        long start = System.nanoTime();
+
+        try {
+            if (!lease.tryAcquire(acquireTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                // The type Hikari throws on timeout, so callers handle both providers alike
+                throw new SQLTransientConnectionException("Timed out waiting for the database connection");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted waiting for the database connection", e);
+        }
+
+        try {
+            Connection conn = ensureUsable();
+            metrics.recordAcquire(System.nanoTime() - start);
+            return borrowed(conn);
+
+        } catch (SQLException | RuntimeException e) {
+
+            lease.release();
+            throw e;
+        }
+    }
+
+    private Connection ensureUsable() throws SQLException {
+
+        if (physical != null && !physical.isClosed()) {
+
+            boolean idleTooLong = System.nanoTime() - lastReleasedNanos > validationIntervalNanos;
+
+            if (!idleTooLong || physical.isValid(2)) {
+                return physical;
+            }
+
+            closeQuietly(physical);
+        }
+
+        physical = DriverManager.getConnection(settings.jdbcUrl, connectProperties());
+        metrics.recordPhysicalConnect();
+        return physical;
+    }
+
+    private Properties connectProperties() {
+        Properties props = new Properties();
+        props.putAll(settings.driverProperties);
+
+        if (settings.user != null) {
+            props.setProperty("user", settings.user);
+        }
+        if (settings.password != null) {
+            props.setProperty("password", settings.password);
+        }
+
+        return props;
+    }
+
+    /**
+     * Wraps the physical connection so {@code close()} returns it instead of
+     * closing it, resetting any transaction state left behind.
+     */
+    private Connection borrowed(Connection conn) {
+
+        boolean[] released = new boolean[1];
+
+        return (Connection) Proxy.newProxyInstance(
+                Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+
+                    // Object methods keep working after release, e.g. for a set holding the connection
+                    if (method.getDeclaringClass() == Object.class) {
+                        switch (method.getName()) {
+                            case "equals":
+                                return proxy == args[0];
+                            case "hashCode":
+                                return System.identityHashCode(proxy);
+                            default:
+                                return "Borrowed " + conn + (released[0] ? " (returned)" : "");
+                        }
+                    }
+
+                    switch (method.getName()) {
+                        case "close":
+                            if (!released[0]) {
+                                released[0] = true;
+                                release(conn);
+                            }
+                            return null;
+                        case "isClosed":
+                            return released[0] || conn.isClosed();
+                        default:
+                            if (released[0]) {
+                                throw new SQLException("Connection has been returned to the provider");
+                            }
+                    }
+
+                    try {
+                        return method.invoke(conn, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                });
+    }
+
+    private void release(Connection conn) {
+
+        try {
+            if (!conn.isClosed() && !conn.getAutoCommit()) {
+                conn.rollback();
+                conn.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            // Broken mid-use; drop it so the next borrower reconnects
+            closeQuietly(conn);
+            physical = null;
+        } finally {
+            lastReleasedNanos = System.nanoTime();
+            lease.release();
+        }
+    }
+
+    @Override
+    public int maxConnections() {
+        return 1;
+    }
+
+    @Override
+    public AcquireMetrics acquireMetrics() {
+        return metrics;
+    }
+
+    @Override
+    public PoolStats poolStats() {
+
+        int active = 1 - lease.availablePermits();
+
+        // Read without the lease; a racy count is fine for reporting
+        int total = physical == null ? 0 : 1;
+
+        return new PoolStats(active, Math.max(total - active, 0), lease.getQueueLength(), total);
+    }
+
+    @Override
+    public void close() {
+
+        lease.acquireUninterruptibly();
+
+        try {
+            if (physical != null) {
+                closeQuietly(physical);
+                physical = null;
+            }
+        } finally {
+            lease.release();
+        }
+    }
+
+    private static void closeQuietly(Connection conn) {
+        try {
+            conn.close();
+        } catch (SQLException ignored) {
+            // Already unusable
+        }
+    }
+}
@@ -0,0 +1,242 @@
+package com.coniungo.app.dao;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Container-wide cache of generated SQL text, keyed by statement shape
+ * (kind, table, column set, where clause, projection).
+ * <p>
+ * Reusing the exact same SQL string per shape avoids rebuilding it on every
+ * call and lets pgjdbc's per-connection statement cache match it, so hot
+ * statements stay server-side prepared for the life of a pooled connection.
+ */
+final class SqlTemplates {
+
+    // Shapes come from code, not user input, but guard against unbounded growth anyway
+    private static final int MAX_TEMPLATES = 1024;
+
+    private static final ConcurrentHashMap<Key, Template> cache = new ConcurrentHashMap<>();
+
+    private SqlTemplates() {
+    }
+
+    /**
+     * SQL text plus the column order its placeholders are bound in.
+     */
+    static final class Template {
+        final String sql;
+        final String[] columns;
+
+        Template(String sql, String[] columns) {
+            this.sql = sql;
+            this.columns = columns;
+        }
+    }
+
+    private enum Kind {
+        INSERT, UPSERT, UPDATE, READ, READ_BY_KEYS, READ_PAGINATED, READ_AFTER, READ_FIRST, READ_BY_PREFIX, STREAM, READ_COLUMNS, DELETE, ESTIMATE_ROWS, COUNT_ROWS, REPLICA_LAG, IS_AURORA, AURORA_REPLICA_LAG
+    }
+
+    private record Key(Kind kind, String table, Object shape, Object detail, String projection) {
+    }
+
+    static Template insert(String table, Set<String> columns) {
+        return lookup(new Key(Kind.INSERT, table, columns, null, null), key -> {
+            String[] cols = columns.toArray(new String[0]);
+
+            StringBuilder sql = new StringBuilder("INSERT INTO ").append(table).append(" (");
+            StringBuilder qms = new StringBuilder();
+
+            for (int i = 0; i < cols.length; i++) {
+                if (i > 0) {
+                    sql.append(",");
+                    qms.append(",");
+                }
+                sql.append(cols[i]);
+                qms.append("?");
+            }
+
+            sql.append(") VALUES (").append(qms).append(")");
+            return new Template(sql.toString(), cols);
+        }, columns);
+    }
+
+    /**
+     * Multi-row {@code INSERT ... ON CONFLICT (conflictCol) DO UPDATE} of every
+     * other column, with one placeholder group per row. Every row count is its
+     * own shape, so callers stick to a few fixed counts.
+     */
+    static Template upsert(String table, Set<String> columns, String conflictCol, int rows) {
+        return lookup(new Key(Kind.UPSERT, table, columns, conflictCol + "/" + rows, null), key -> {
+            String[] cols = columns.toArray(new String[0]);
+
+            StringBuilder sql = new StringBuilder("INSERT INTO ").append(table).append(" (");
+            StringBuilder group = new StringBuilder("(");
+            StringBuilder updates = new StringBuilder();
+
+            for (int i = 0; i < cols.length; i++) {
+                if (i > 0) {
+                    sql.append(",");
+                    group.append(",");
+                }
+                sql.append(cols[i]);
+                group.append("?");
+
+                if (!cols[i].equals(conflictCol)) {
+                    if (!updates.isEmpty()) {
+                        updates.append(",");
+                    }
+                    updates.append(cols[i]).append("=EXCLUDED.").append(cols[i]);
+                }
+            }
+
+            group.append(")");
+            sql.append(") VALUES ");
+
+            for (int r = 0; r < rows; r++) {
+                if (r > 0) {
+                    sql.append(",");
+                }
+                sql.append(group);
+            }
+
+            sql.append(" ON CONFLICT (").append(conflictCol).append(")");
+            sql.append(updates.isEmpty() ? " DO NOTHING" : " DO UPDATE SET " + updates);
+            return new Template(sql.toString(), cols);
+        }, columns);
+    }
+
+    static Template update(String table, Set<String> columns, String where) {
+        return lookup(new Key(Kind.UPDATE, table, columns, where, null), key -> {
+            String[] cols = columns.toArray(new String[0]);
+
+            StringBuilder sql = new StringBuilder("UPDATE ").append(table).append(" SET ");
+
+            for (int i = 0; i < cols.length; i++) {
+                if (i > 0) {
+                    sql.append(",");
+                }
+                sql.append(cols[i]).append("=?");
+            }
+
+            sql.append(" WHERE ").append(where);
+            return new Template(sql.toString(), cols);
+        }, columns);
+    }
+
+    static String read(String table, String projection, String pkCol) {
+        return sql(Kind.READ, table, pkCol, null, projection, () ->
+                "SELECT " + projection + " FROM " + table + " WHERE " + pkCol + "=?");
+    }
+
+    static String readByKeys(String table, String projection, String keyCol) {
+        return sql(Kind.READ_BY_KEYS, table, keyCol, null, projection, () ->
+                "SELECT " + projection + " FROM " + table + " WHERE " + keyCol + " = ANY(?)");
+    }
+
+    static String readPaginated(String table, String projection) {
+        return sql(Kind.READ_PAGINATED, table, null, null, projection, () ->
+                "SELECT " + projection + " FROM " + table + " LIMIT ? OFFSET ?");
+    }
+
+    static String readAfter(String table, String projection, String keyCol, boolean hasLastKey) {
+        return sql(hasLastKey ? Kind.READ_AFTER : Kind.READ_FIRST, table, keyCol, null, projection, () ->
+                hasLastKey
+                        ? "SELECT " + projection + " FROM " + table + " WHERE " + keyCol + ">? ORDER BY " + keyCol + " LIMIT ?"
+                        : "SELECT " + projection + " FROM " + table + " ORDER BY " + keyCol + " LIMIT ?");
+    }
+
+    static String readByPrefix(String table, String projection, String column, String keyCol, boolean hasLast) {
+        // Matches the expression index lower(column) COLLATE "C": byte order makes a prefix a
+        // contiguous range, so the bounds become index conditions even under a generic plan
+        String value = "lower(" + column + ") COLLATE \"C\"";
+
+        return sql(Kind.READ_BY_PREFIX, table, column, hasLast ? keyCol + ">" : keyCol, projection, () ->
+                "SELECT " + projection + " FROM " + table
+                        + " WHERE " + value + " >= lower(?) AND " + value + " < lower(?)"
+                        + " AND " + value + " LIKE lower(?)"
+                        + (hasLast ? " AND (" + value + ", " + keyCol + ") > (lower(?), ?)" : "")
+                        + " ORDER BY " + value + ", " + keyCol + " LIMIT ?");
+    }
+
+    static String streamAfter(String table, String projection, String keyCol, boolean hasLastKey, boolean limited) {
+        return sql(Kind.STREAM, table, keyCol, (hasLastKey ? 1 : 0) | (limited ? 2 : 0), projection, () ->
+                "SELECT " + projection + " FROM " + table
+                        + (hasLastKey ? " WHERE " + keyCol + ">?" : "")
+                        + " ORDER BY " + keyCol
+                        + (limited ? " LIMIT ?" : ""));
+    }
+
+    static String estimateRowCount() {
+        // to_regclass resolves quoted names like "User" exactly as they appear in SQL
+        return sql(Kind.ESTIMATE_ROWS, "", null, null, null, () ->
+                "SELECT reltuples::bigint FROM pg_class WHERE oid = to_regclass(?)");
+    }
+
+    static String replicaLagMillis() {
+        // 0 on a primary, or on a standby that has replayed everything it received (an idle
+        // primary would otherwise look lagged); Aurora replicas do not replay WAL, see auroraReplicaLagMillis
+        return sql(Kind.REPLICA_LAG, "", null, null, null, () ->
+                "SELECT CASE WHEN NOT pg_is_in_recovery()"
+                        + " OR pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0"
+                        + " ELSE COALESCE(EXTRACT(EPOCH FROM (now() - pg_last_xact_replay_timestamp())) * 1000, 0)"
+                        + " END::bigint");
+    }
+
+    static String isAurora() {
+        return sql(Kind.IS_AURORA, "", null, null, null, () ->
+                "SELECT count(*) FROM pg_catalog.pg_proc WHERE proname = 'aurora_replica_status'");
+    }
+
+    static String auroraReplicaLagMillis() {
+        // Lag of the instance this connection landed on, as Aurora itself measures it; 0 on the writer
+        return sql(Kind.AURORA_REPLICA_LAG, "", null, null, null, () ->
+                "SELECT GREATEST(COALESCE(MAX(replica_lag_in_msec), 0), 0)::bigint"
+                        + " FROM aurora_replica_status() WHERE server_id = aurora_db_instance_identifier()");
+    }
+
+    static String countRows(String table) {
+        return sql(Kind.COUNT_ROWS, table, null, null, null, () ->
+                "SELECT COUNT(*) FROM " + table);
+    }
+
+    static String readColumns(String table, String cols, String where) {
+        return sql(Kind.READ_COLUMNS, table, cols, where, null, () ->
+                "SELECT " + cols + " FROM " + table + " WHERE " + where);
+    }
+
+    static String delete(String table, String where) {
+        return sql(Kind.DELETE, table, where, null, null, () ->
+                "DELETE FROM " + table + " WHERE " + where);
+    }
+
+    private static String sql(Kind kind, String table, Object shape, Object detail, String projection,
+                              Supplier<String> builder) {
+        return lookup(new Key(kind, table, shape, detail, projection),
+                key -> new Template(builder.get(), null), shape).sql;
+    }
+
+    /**
+     * Looks the template up by a key that may wrap a caller-owned column set,
+     * and stores it under an immutable copy of that set on a miss.
+     */
+    private static Template lookup(Key key, Function<Key, Template> builder, Object shape) {
+        Template template = cache.get(key);
+
+        if (template != null) {
+            return template;
+        }
+
+        template = builder.apply(key);
+
+        if (cache.size() < MAX_TEMPLATES) {
+            Object ownedShape = shape instanceof Set<?> set ? Set.copyOf(set) : shape;
+            cache.putIfAbsent(new Key(key.kind(), key.table(), ownedShape, key.detail(), key.projection()), template);
+        }
+
+        return template;
+    }
+}
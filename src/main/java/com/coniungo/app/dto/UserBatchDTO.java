@@ -0,0 +1,15 @@
+package com.coniungo.app.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserBatchDTO {
+    // Found users, in the order their IDs were requested
+    private List<UserDTO> users;
+    private List<Long> missingIds;
+}
@@ -1,14 +1,131 @@
 package com.coniungo.app.handlers;
 
 
+import com.amazonaws.services.lambda.runtime.Context;
+import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyRequestEvent;
 import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyResponseEvent;
+import com.coniungo.app.dao.QueryStats;
+import com.coniungo.app.json.ResponseWriter;
+import com.coniungo.app.lifecycle.ColdStart;
+import com.coniungo.app.lifecycle.PrimingResource;
+import com.coniungo.app.metrics.EmfWriter;
+import com.coniungo.app.metrics.InvocationMetrics;
+import com.coniungo.app.metrics.Phase;
 import com.coniungo.app.model.ApiResponse;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import org.crac.Core;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLTransientConnectionException;
+import java.util.Base64;
 import java.util.Map;
+import java.util.function.Supplier;
+import java.util.function.ToIntFunction;
 
 public abstract class BaseHandler {
+    // Request parsing only; responses are written by ResponseWriter
     protected static final ObjectMapper objectMapper = new ObjectMapper();
 
+    // CRaC only keeps weak references to registered resources
+    private static final PrimingResource primingResource = new PrimingResource(objectMapper);
+
+    static {
+        Core.getGlobalContext().register(primingResource);
+    }
+
+    /**
+     * Runs one invocation, answering 304 when {@code If-None-Match} matches the
+     * response's ETag and compressing it when the client accepts it. Every
+     * invocation emits one EMF line with its phase timings; the first one after
+     * a JVM start or snapshot restore also reports init and latency.
+     * <p>
+     * A base64 request body is decoded before the invocation runs, so handlers
+     * always read plain text.
+     */
+    protected APIGatewayProxyResponseEvent observe(APIGatewayProxyRequestEvent input,
+                                                   Context context,
+                                                   Supplier<APIGatewayProxyResponseEvent> invocation) {
+        return measure(context, () -> {
+            if (!decodeBody(input)) {
+                context.getLogger().log("WARN: Request rejected - Body is not valid base64");
+                return buildErrorResponse(400, "Request body is not valid base64");
+            }
+
+            APIGatewayProxyResponseEvent response = ConditionalGet.apply(input, invocation.get());
+            return ResponseCompression.apply(input, response);
+        }, APIGatewayProxyResponseEvent::getStatusCode);
+    }
+
+    /**
+     * Decodes a base64 body in place. The API declares binary media types so
+     * compressed responses pass through, which makes API Gateway base64-encode
+     * every request body, JSON included.
+     *
+     * @return false if the body claims to be base64 but is not.
+     */
+    private static boolean decodeBody(APIGatewayProxyRequestEvent input) {
+        if (!Boolean.TRUE.equals(input.getIsBase64Encoded()) || input.getBody() == null) {
+            return true;
+        }
+
+        try {
+            input.setBody(new String(Base64.getDecoder().decode(input.getBody()), StandardCharsets.UTF_8));
+            input.setIsBase64Encoded(false);
+            return true;
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Runs one invocation of any event type with the metrics and cold start
+     * reporting of {@link #observe}; {@code status} maps the result to the
+     * status code reported in its EMF line.
+     */
+    protected <R> R measure(Context context, Supplier<R> invocation, ToIntFunction<R> status) {
+        boolean cold = ColdStart.claimFirstInvocation();
+        long start = System.nanoTime();
+
+        InvocationMetrics metrics = InvocationMetrics.begin(cold);
+        int statusCode = 0;
+
+        try {
+            R result = invocation.get();
+            statusCode = status.applyAsInt(result);
+            return result;
+        } finally {
+            long elapsed = System.nanoTime() - start;
+
+            metrics.record(Phase.TOTAL, elapsed);
+            EmfWriter.emit(context.getLogger(), metrics, getClass().getSimpleName(), context.getAwsRequestId(),
+                    statusCode, ColdStart.isRestored() ? "restore" : "jvm", ColdStart.isPrimed());
+            InvocationMetrics.end();
+            QueryStats.reportIfDue(context.getLogger());
+
+            if (cold) {
+                ColdStart.report(context.getLogger(), start, elapsed);
+            }
+        }
+    }
+
+    /**
+     * 503 with {@code Retry-After} when no connection became free within
+     * {@code DB_CONNECTION_TIMEOUT_MS}, so a saturated pool sheds load as
+     * "busy" instead of as a server fault; 500 for anything else.
+     */
+    protected APIGatewayProxyResponseEvent buildServerErrorResponse(Exception e) {
+
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SQLTransientConnectionException) {
+                APIGatewayProxyResponseEvent response = buildErrorResponse(503, "Service busy, retry later");
+                response.setHeaders(Map.of("Content-Type", "application/json", "Retry-After", "1"));
+                return response;
+            }
+        }
+
+        return buildErrorResponse(500, "Internal Server Error: " + e.getMessage());
+    }
+
     protected APIGatewayProxyResponseEvent buildErrorResponse(int status, String message) {
         APIGatewayProxyResponseEvent response = new APIGatewayProxyResponseEvent();
         response.setHeaders(Map.of("Content-Type", "application/json"));
@@ -21,7 +138,7 @@ public abstract class BaseHandler {
                     .message(message)
                     .data(null)
                     .build();
-            response.setBody(objectMapper.writeValueAsString(error));
+            response.setBody(ResponseWriter.toJson(error));
         } catch (Exception e) {
             // Fallback if JSON serialization itself fails
             response.setBody("{\"isSuccessful\":false,\"message\":\"Internal Server Error\"}");
@@ -0,0 +1,145 @@
+package com.coniungo.app.handlers;
+
+import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyRequestEvent;
+import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyResponseEvent;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Strong ETags and {@code If-None-Match} handling for GET responses.
+ * <p>
+ * Unless a handler already set an {@code ETag} (e.g. from a row version), the
+ * tag is a truncated SHA-256 of the uncompressed body, so it changes exactly
+ * when the content does. A strong tag names one exact byte sequence, so when
+ * {@link ResponseCompression} will encode the body the coding is appended,
+ * e.g. {@code "…-gzip"}; weak tags are left as they are.
+ */
+final class ConditionalGet {
+
+    // Pooled rather than per thread: the HTTP server runs each request on a new virtual thread
+    private static final int MAX_IDLE_DIGESTS = Runtime.getRuntime().availableProcessors() * 2;
+
+    private static final BlockingQueue<MessageDigest> digests = new ArrayBlockingQueue<>(MAX_IDLE_DIGESTS);
+
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+
+    private ConditionalGet() {
+    }
+
+    static APIGatewayProxyResponseEvent apply(APIGatewayProxyRequestEvent request,
+                                              APIGatewayProxyResponseEvent response) {
+
+        if (request == null
+                || !"GET".equalsIgnoreCase(request.getHttpMethod())
+                || response.getStatusCode() == null
+                || response.getStatusCode() != 200
+                || response.getBody() == null) {
+            return response;
+        }
+
+        String etag = response.getHeaders() == null ? null : response.getHeaders().get("ETag");
+
+        if (etag == null) {
+            etag = etagForBody(response.getBody());
+        }
+
+        String coding = ResponseCompression.encodingFor(request, response);
+        etag = forCoding(etag, coding);
+        response.setHeaders(withHeader(response.getHeaders(), "ETag", etag));
+
+        if (matches(ResponseCompression.header(request, "If-None-Match"), etag)) {
+            APIGatewayProxyResponseEvent notModified = notModified(etag);
+
+            if (coding != null) {
+                notModified.setHeaders(withHeader(notModified.getHeaders(), "Vary", "Accept-Encoding"));
+            }
+
+            return notModified;
+        }
+
+        return response;
+    }
+
+    /**
+     * Tags a strong ETag with the content coding of the body it is sent with.
+     */
+    static String forCoding(String etag, String coding) {
+
+        if (coding == null || etag.startsWith("W/") || !etag.endsWith("\"")) {
+            return etag;
+        }
+
+        return etag.substring(0, etag.length() - 1) + "-" + coding + "\"";
+    }
+
+    static String etagForBody(String body) {
+        MessageDigest digest = digests.poll();
+
+        if (digest == null) {
+            digest = newDigest();
+        }
+
+        byte[] hash = digest.digest(body.getBytes(StandardCharsets.UTF_8));
+        digests.offer(digest);
+
+        // 128 bits is plenty for change detection and keeps the header short
+        byte[] truncated = new byte[16];
+        System.arraycopy(hash, 0, truncated, 0, truncated.length);
+
+        return "\"" + ENCODER.encodeToString(truncated) + "\"";
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Weak comparison, as RFC 9110 prescribes for {@code If-None-Match}.
+     */
+    static boolean matches(String ifNoneMatch, String etag) {
+
+        if (ifNoneMatch == null || etag == null) {
+            return false;
+        }
+
+        String opaque = stripWeak(etag);
+
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+
+            if ("*".equals(tag) || stripWeak(tag).equals(opaque)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    static APIGatewayProxyResponseEvent notModified(String etag) {
+        APIGatewayProxyResponseEvent response = new APIGatewayProxyResponseEvent();
+        response.setStatusCode(304);
+        response.setHeaders(Map.of("ETag", etag));
+        return response;
+    }
+
+    static Map<String, String> withHeader(Map<String, String> headers, String name, String value) {
+        Map<String, String> copy = headers == null ? new HashMap<>() : new HashMap<>(headers);
+        copy.put(name, value);
+        return copy;
+    }
+
+    private static String stripWeak(String tag) {
+        return tag.startsWith("W/") ? tag.substring(2) : tag;
+    }
+}
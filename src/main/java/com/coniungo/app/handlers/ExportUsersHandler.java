@@ -0,0 +1,222 @@
+package com.coniungo.app.handlers;
+
+import com.amazonaws.services.lambda.runtime.Context;
+import com.amazonaws.services.lambda.runtime.LambdaLogger;
+import com.amazonaws.services.lambda.runtime.RequestStreamHandler;
+import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyResponseEvent;
+import com.coniungo.app.dto.UserDTO;
+import com.coniungo.app.json.ResponseWriter;
+import com.coniungo.app.metrics.InvocationMetrics;
+import com.coniungo.app.metrics.Phase;
+import com.coniungo.app.runtime.StreamingRuntime;
+import com.coniungo.app.service.UserService;
+import com.coniungo.app.service.impl.UserServiceImpl;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+/**
+ * Exports the user table in one invocation through a single server-side
+ * cursor, writing rows to the response stream as they are fetched.
+ * <p>
+ * Invoked through a function URL with {@code InvokeMode: RESPONSE_STREAM} on
+ * the native custom runtime with {@code RESPONSE_STREAMING=true}: the managed
+ * Java runtime buffers the whole output instead, so a full export would run
+ * into the buffered response size limit there. Query parameters:
+ * {@code format} ({@code ndjson} or {@code csv}), {@code after} (resume after
+ * this user ID, e.g. the last one received before a dropped connection) and
+ * {@code limit} (0 = all rows). Rows are ordered by ID, so the last complete
+ * line always tells where to resume.
+ * <p>
+ * Memory stays bounded by the fetch size and the output buffer: a row is only
+ * mapped when the previous one has been written, and writes block while the
+ * consumer is slow, which in turn holds back the next cursor fetch. Invalid
+ * parameters get a 400 before any row is read; a failure mid-export ends the
+ * stream with the runtime's error trailers.
+ */
+public class ExportUsersHandler extends BaseHandler implements RequestStreamHandler {
+
+    // Bytes gathered before each write to the response stream
+    private static final int OUTPUT_BUFFER_BYTES = 64 * 1024;
+
+    private final UserService userService;
+
+    public ExportUsersHandler() {
+        this(new UserServiceImpl());
+    }
+
+    public ExportUsersHandler(UserService userService) {
+        this.userService = userService;
+    }
+
+    @Override
+    public void handleRequest(InputStream input, OutputStream output, Context context) throws IOException {
+        JsonNode event = objectMapper.readTree(input);
+
+        try {
+            measure(context, () -> {
+                try {
+                    return handle(event, output, context);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }, status -> status);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private int handle(JsonNode event, OutputStream output, Context context) throws IOException {
+        LambdaLogger logger = context.getLogger();
+        logger.log(":::: START ExportUsersHandler.handleRequest ::::");
+
+        // Validate Input
+        JsonNode query = event.path("queryStringParameters");
+        String format = query.path("format").asText("ndjson");
+        Long lastId;
+        long limit;
+
+        try {
+            lastId = query.hasNonNull("after") ? Long.parseLong(query.path("after").asText().trim()) : null;
+            limit = query.hasNonNull("limit") ? Long.parseLong(query.path("limit").asText().trim()) : 0;
+        } catch (NumberFormatException e) {
+            logger.log("WARN: Request rejected - Invalid number in 'after' or 'limit': " + e.getMessage());
+            return writeError(output, 400, "after and limit must be numbers");
+        }
+
+        if (!format.equals("ndjson") && !format.equals("csv")) {
+            logger.log("WARN: Request rejected - Unsupported format: " + format);
+            return writeError(output, 400, "format must be ndjson or csv");
+        }
+
+        if (limit < 0 || limit > Integer.MAX_VALUE) {
+            logger.log("WARN: Request rejected - limit out of range: " + limit);
+            return writeError(output, 400, "limit must be between 0 and " + Integer.MAX_VALUE);
+        }
+
+        logger.log(String.format("INFO: Exporting users as %s (After ID: %s, Limit: %d)", format, lastId, limit));
+
+        long[] position = new long[2]; // rows written, last ID written
+        long[] writeNanos = new long[1];
+
+        OutputStream out = new BufferedOutputStream(output, OUTPUT_BUFFER_BYTES);
+
+        StreamingRuntime.writeHttpPrelude(out, 200,
+                Map.of("Content-Type", format.equals("csv") ? "text/csv; charset=utf-8" : "application/x-ndjson"));
+
+        try {
+            if (format.equals("csv")) {
+                exportCsv(out, lastId, (int) limit, position, writeNanos, logger);
+            } else {
+                exportNdjson(out, lastId, (int) limit, position, writeNanos, logger);
+            }
+        } catch (RuntimeException | IOException e) {
+            // The status is already on the wire; the client resumes after the last complete line it received
+            logger.log("ERROR: Export interrupted after " + position[0] + " rows, last ID " + position[1]
+                    + ": " + e.getMessage());
+            throw e;
+        } finally {
+            InvocationMetrics.current().record(Phase.SERIALIZATION, writeNanos[0]);
+        }
+
+        logger.log("SUCCESS: Exported " + position[0] + " users, last ID " + position[1]);
+        logger.log(":::: END ExportUsersHandler.handleRequest [SUCCESS] ::::");
+
+        return 200;
+    }
+
+    private int writeError(OutputStream output, int status, String message) throws IOException {
+        APIGatewayProxyResponseEvent error = buildErrorResponse(status, message);
+
+        StreamingRuntime.writeHttpPrelude(output, status, error.getHeaders());
+        output.write(error.getBody().getBytes(StandardCharsets.UTF_8));
+        output.flush();
+
+        return status;
+    }
+
+    private void exportNdjson(OutputStream out,
+                              Long lastId,
+                              int limit,
+                              long[] position,
+                              long[] writeNanos,
+                              LambdaLogger logger) throws IOException {
+        try (JsonGenerator gen = ResponseWriter.createGenerator(out)) {
+            // One object per line; each is terminated below instead of separated
+            gen.setRootValueSeparator(null);
+
+            userService.exportUsers(lastId, limit, user -> {
+                long start = System.nanoTime();
+                ResponseWriter.writeUser(gen, user);
+                gen.writeRaw('\n');
+                writeNanos[0] += System.nanoTime() - start;
+
+                position[0]++;
+                position[1] = user.getId();
+            }, logger);
+        }
+    }
+
+    private void exportCsv(OutputStream out,
+                           Long lastId,
+                           int limit,
+                           long[] position,
+                           long[] writeNanos,
+                           LambdaLogger logger) throws IOException {
+        try (Writer writer = new OutputStreamWriter(out, StandardCharsets.UTF_8)) {
+            writer.write("id,username,email\n");
+
+            userService.exportUsers(lastId, limit, user -> {
+                long start = System.nanoTime();
+                writeCsvRow(writer, user);
+                writeNanos[0] += System.nanoTime() - start;
+
+                position[0]++;
+                position[1] = user.getId();
+            }, logger);
+        }
+    }
+
+    private static void writeCsvRow(Writer writer, UserDTO user) throws IOException {
+        writer.write(Long.toString(user.getId()));
+        writer.write(',');
+        writeCsvField(writer, user.getUsername());
+        writer.write(',');
+        writeCsvField(writer, user.getEmail());
+        writer.write('\n');
+    }
+
+    /**
+     * RFC 4180 field: quoted only when it contains a separator, quote or line break.
+     */
+    private static void writeCsvField(Writer writer, String value) throws IOException {
+        if (value == null) {
+            return;
+        }
+
+        boolean quote = false;
+
+        for (int i = 0; i < value.length() && !quote; i++) {
+            char ch = value.charAt(i);
+            quote = ch == ',' || ch == '"' || ch == '\n' || ch == '\r';
+        }
+
+        if (!quote) {
+            writer.write(value);
+            return;
+        }
+
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+}
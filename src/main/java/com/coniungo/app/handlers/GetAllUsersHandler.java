@@ -5,20 +5,48 @@ import com.amazonaws.services.lambda.runtime.LambdaLogger;
 import com.amazonaws.services.lambda.runtime.RequestHandler;
 import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyRequestEvent;
 import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyResponseEvent;
+import com.coniungo.app.dao.Page;
 import com.coniungo.app.dto.UserDTO;
+import com.coniungo.app.json.ResponseWriter;
+import com.coniungo.app.metrics.InvocationMetrics;
+import com.coniungo.app.metrics.Phase;
 import com.coniungo.app.model.ApiResponse;
+import com.coniungo.app.model.PageInfo;
 import com.coniungo.app.service.UserService;
 import com.coniungo.app.service.impl.UserServiceImpl;
+import com.coniungo.app.utils.CursorCodec;
+import com.coniungo.app.utils.InvalidCursorException;
+import com.fasterxml.jackson.core.JsonGenerator;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 public class GetAllUsersHandler extends BaseHandler implements RequestHandler<APIGatewayProxyRequestEvent, APIGatewayProxyResponseEvent> {
 
-    private final UserService userService = new UserServiceImpl();
+    // Pages above this size are streamed from a server-side cursor instead of materialized
+    private static final int STREAMING_PAGE_SIZE = 200;
+    private static final int MAX_PAGE_SIZE = 5000;
+
+    private final UserService userService;
+
+    public GetAllUsersHandler() {
+        this(new UserServiceImpl());
+    }
+
+    public GetAllUsersHandler(UserService userService) {
+        this.userService = userService;
+    }
 
     @Override
     public APIGatewayProxyResponseEvent handleRequest(APIGatewayProxyRequestEvent input, Context context) {
+        return observe(input, context, () -> handle(input, context));
+    }
+
+    private APIGatewayProxyResponseEvent handle(APIGatewayProxyRequestEvent input, Context context) {
         LambdaLogger logger = context.getLogger();
         logger.log(":::: START GetAllUsersHandler.handleRequest ::::");
 
@@ -29,7 +57,8 @@ public class GetAllUsersHandler extends BaseHandler implements RequestHandler<AP
             // Check for optional pagination parameters (defaults provided if missing)
             Map<String, String> queryParams = input.getQueryStringParameters();
             int pageSize = 50;
-            int pageNumber = 1;
+            Integer pageNumber = null;
+            String cursor = null;
 
             if (queryParams != null) {
                 if (queryParams.containsKey("pageSize")) {
@@ -38,36 +67,139 @@ public class GetAllUsersHandler extends BaseHandler implements RequestHandler<AP
                 if (queryParams.containsKey("pageNumber")) {
                     pageNumber = Integer.parseInt(queryParams.get("pageNumber"));
                 }
+                cursor = queryParams.get("cursor");
+            }
+
+            if (pageSize < 1 || pageSize > MAX_PAGE_SIZE) {
+                logger.log("WARN: Request rejected - pageSize out of range: " + pageSize);
+                return buildErrorResponse(400, "pageSize must be between 1 and " + MAX_PAGE_SIZE);
             }
 
-            logger.log(String.format("INFO: Fetching users (Page: %d, Size: %d)", pageNumber, pageSize));
+            if (pageNumber != null && pageNumber < 1) {
+                logger.log("WARN: Request rejected - pageNumber out of range: " + pageNumber);
+                return buildErrorResponse(400, "pageNumber must be at least 1");
+            }
+
+            boolean exactTotal = queryParams != null && Boolean.parseBoolean(queryParams.get("exactTotal"));
+
+            // Fan out: the total runs alongside the page query instead of after it
+            CompletableFuture<Long> total = userService.getTotalUsersAsync(exactTotal, logger);
+
+            Page<UserDTO> page;
+            String nextCursor = null;
+
+            if (pageNumber != null && cursor == null) {
+                // Legacy OFFSET paging, kept for backward compatibility only
+                logger.log(String.format("INFO: Fetching users (Page: %d, Size: %d)", pageNumber, pageSize));
+
+                page = userService.getAllUsers(pageSize, pageNumber, logger);
+            } else if (pageSize > STREAMING_PAGE_SIZE) {
+                Long lastId = cursor == null ? null : CursorCodec.decodeId(cursor);
+                logger.log(String.format("INFO: Streaming users (After ID: %s, Size: %d)", lastId, pageSize));
+
+                response.setStatusCode(200);
+                response.setBody(streamUsers(lastId, pageSize, exactTotal, total, logger));
+
+                logger.log(":::: END GetAllUsersHandler.handleRequest [SUCCESS] ::::");
+                return response;
+            } else {
+                Long lastId = cursor == null ? null : CursorCodec.decodeId(cursor);
+                logger.log(String.format("INFO: Fetching users (After ID: %s, Size: %d)", lastId, pageSize));
 
-            // Call Service Layer
-            List<UserDTO> users = userService.getAllUsers(pageSize, pageNumber, logger);
+                page = userService.getUsersAfter(lastId, pageSize, logger);
+
+                List<UserDTO> items = page.getItems();
+                if (page.isHasMore() && !items.isEmpty()) {
+                    nextCursor = CursorCodec.encodeId(items.get(items.size() - 1).getId());
+                }
+            }
 
             // Success Response Logic
-            logger.log("SUCCESS: Retrieved " + users.size() + " users");
+            logger.log("SUCCESS: Retrieved " + page.getItems().size() + " users");
 
             ApiResponse<List<UserDTO>> apiResponse = ApiResponse.<List<UserDTO>>builder()
                     .statusCode(200)
                     .isSuccessful(true)
                     .message("Users retrieved successfully")
-                    .data(users)
+                    .data(page.getItems())
+                    .nextCursor(nextCursor)
+                    .pagination(PageInfo.builder()
+                            .pageSize(pageSize)
+                            .pageNumber(cursor == null ? pageNumber : null)
+                            .hasMore(page.isHasMore())
+                            .totalEstimate(total.join())
+                            .exactTotal(exactTotal)
+                            .build())
                     .build();
 
             response.setStatusCode(200);
-            response.setBody(objectMapper.writeValueAsString(apiResponse));
+            response.setBody(ResponseWriter.toJson(apiResponse));
 
         } catch (NumberFormatException e) {
             logger.log("WARN: Invalid pagination parameters: " + e.getMessage());
             return buildErrorResponse(400, "Pagination parameters must be numeric");
+        } catch (InvalidCursorException e) {
+            logger.log("WARN: Invalid pagination cursor: " + e.getMessage());
+            return buildErrorResponse(400, "Invalid pagination cursor");
         } catch (Exception e) {
             logger.log("CRITICAL ERROR in GetAllUsersHandler: " + e.getMessage());
             e.printStackTrace();
-            return buildErrorResponse(500, "Internal Server Error: " + e.getMessage());
+            return buildServerErrorResponse(e);
         }
 
         logger.log(":::: END GetAllUsersHandler.handleRequest [SUCCESS] ::::");
         return response;
     }
+
+    /**
+     * Writes the {@link ApiResponse} envelope incrementally, serializing each
+     * user as it comes off the cursor so no intermediate lists are built.
+     * One look-ahead row is read to set {@code hasMore} and is not written.
+     */
+    private String streamUsers(Long lastId,
+                               int pageSize,
+                               boolean exactTotal,
+                               CompletableFuture<Long> total,
+                               LambdaLogger logger) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(8192);
+        long[] position = new long[2]; // rows read, last ID written
+        long[] writeNanos = new long[1];
+
+        try (JsonGenerator gen = ResponseWriter.createGenerator(out)) {
+            ResponseWriter.writeEnvelopeStart(gen, 200, "Users retrieved successfully");
+            gen.writeStartArray();
+
+            userService.streamUsersAfter(lastId, pageSize + 1, user -> {
+                if (++position[0] <= pageSize) {
+                    long start = System.nanoTime();
+                    ResponseWriter.writeUser(gen, user);
+                    writeNanos[0] += System.nanoTime() - start;
+                    position[1] = user.getId();
+                }
+            }, logger);
+
+            // Envelope writes are negligible next to the rows
+            InvocationMetrics.current().record(Phase.SERIALIZATION, writeNanos[0]);
+
+            gen.writeEndArray();
+
+            boolean hasMore = position[0] > pageSize;
+
+            if (hasMore) {
+                ResponseWriter.writeNextCursor(gen, CursorCodec.encodeId(position[1]));
+            }
+
+            ResponseWriter.writePagination(gen, PageInfo.builder()
+                    .pageSize(pageSize)
+                    .hasMore(hasMore)
+                    .totalEstimate(total.join())
+                    .exactTotal(exactTotal)
+                    .build());
+
+            ResponseWriter.writeEnvelopeEnd(gen, true);
+        }
+
+        logger.log("SUCCESS: Streamed " + Math.min(position[0], pageSize) + " users");
+        return out.toString(StandardCharsets.UTF_8);
+    }
 }
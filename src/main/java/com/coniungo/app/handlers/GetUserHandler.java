@@ -6,7 +6,9 @@ import com.amazonaws.services.lambda.runtime.RequestHandler;
 import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyRequestEvent;
 import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyResponseEvent;
 import com.coniungo.app.dto.UserDTO;
+import com.coniungo.app.json.ResponseWriter;
 import com.coniungo.app.model.ApiResponse;
+import com.coniungo.app.model.Versioned;
 import com.coniungo.app.service.UserService;
 import com.coniungo.app.service.impl.UserServiceImpl;
 
@@ -15,10 +17,22 @@ import java.util.Optional;
 
 public class GetUserHandler extends BaseHandler implements RequestHandler<APIGatewayProxyRequestEvent, APIGatewayProxyResponseEvent> {
 
-    private final UserService userService = new UserServiceImpl();
+    private final UserService userService;
+
+    public GetUserHandler() {
+        this(new UserServiceImpl());
+    }
+
+    public GetUserHandler(UserService userService) {
+        this.userService = userService;
+    }
 
     @Override
     public APIGatewayProxyResponseEvent handleRequest(APIGatewayProxyRequestEvent input, Context context) {
+        return observe(input, context, () -> handle(input, context));
+    }
+
+    private APIGatewayProxyResponseEvent handle(APIGatewayProxyRequestEvent input, Context context) {
         LambdaLogger logger = context.getLogger();
         logger.log(":::: START GetUserHandler.handleRequest ::::");
 
@@ -26,21 +40,44 @@ public class GetUserHandler extends BaseHandler implements RequestHandler<APIGat
         response.setHeaders(Map.of("Content-Type", "application/json"));
 
         try {
-            // Validate Input
-            Map<String, String> queryParams = input.getQueryStringParameters();
-            if (queryParams == null || !queryParams.containsKey("id")) {
-                logger.log("WARN: Request rejected - Missing 'id' parameter in query string");
+            // Validate Input: /users/{id} path parameter, or ?id= on /user
+            String idRaw = parameter(input.getPathParameters(), "id");
+            if (idRaw == null) {
+                idRaw = parameter(input.getQueryStringParameters(), "id");
+            }
+            if (idRaw == null) {
+                logger.log("WARN: Request rejected - Missing 'id' parameter in path or query string");
                 return buildErrorResponse(400, "Missing 'id' parameter");
             }
 
-            String idRaw = queryParams.get("id");
             logger.log("INFO: Processing request for User ID: " + idRaw);
 
             Long userId = Long.parseLong(idRaw);
 
-            // Call Service Layer
-            logger.log("INFO: Invoking UserService.getUserById for ID: " + userId);
-            Optional<UserDTO> userDto = userService.getUserById(userId, logger);
+            Optional<UserDTO> userDto;
+            String etag = null;
+
+            if (userService.hasRowVersions()) {
+                // Versioned ETags: the row and its version come from the read-through cache together
+                logger.log("INFO: Invoking UserService.getVersionedUserById for ID: " + userId);
+                Optional<Versioned<UserDTO>> versioned = userService.getVersionedUserById(userId, logger);
+
+                if (versioned.isPresent()) {
+                    etag = versionETag(userId, versioned.get().getVersion());
+
+                    // A matching If-None-Match is answered without serializing the body
+                    if (ConditionalGet.matches(ResponseCompression.header(input, "If-None-Match"), etag)) {
+                        logger.log(":::: END GetUserHandler.handleRequest [NOT MODIFIED] ::::");
+                        return ConditionalGet.notModified(etag);
+                    }
+                }
+
+                userDto = versioned.map(Versioned::getValue);
+            } else {
+                // Call Service Layer
+                logger.log("INFO: Invoking UserService.getUserById for ID: " + userId);
+                userDto = userService.getUserById(userId, logger);
+            }
 
             // Success Response Logic
             if (userDto.isPresent()) {
@@ -54,7 +91,12 @@ public class GetUserHandler extends BaseHandler implements RequestHandler<APIGat
                         .build();
 
                 response.setStatusCode(200);
-                response.setBody(objectMapper.writeValueAsString(apiResponse));
+                response.setBody(ResponseWriter.toJson(apiResponse));
+
+                // Without row versions, BaseHandler derives the ETag from the body
+                if (etag != null) {
+                    response.setHeaders(ConditionalGet.withHeader(response.getHeaders(), "ETag", etag));
+                }
 
                 logger.log(":::: END GetUserHandler.handleRequest [SUCCESS] ::::");
                 return response;
@@ -70,7 +112,17 @@ public class GetUserHandler extends BaseHandler implements RequestHandler<APIGat
             logger.log("CRITICAL ERROR in GetUserHandler: " + e.getMessage());
             // This logs the full stack trace for deep debugging
             e.printStackTrace();
-            return buildErrorResponse(500, "Internal Server Error: " + e.getMessage());
+            return buildServerErrorResponse(e);
         }
     }
+
+    // Bump the representation marker whenever the user JSON layout changes. Weak, since
+    // it is matched before the body and its content coding are known
+    private static String versionETag(Long userId, String version) {
+        return "W/\"u1-" + userId + "-" + version + "\"";
+    }
+
+    private static String parameter(Map<String, String> parameters, String name) {
+        return parameters == null ? null : parameters.get(name);
+    }
 }
@@ -0,0 +1,131 @@
+package com.coniungo.app.handlers;
+
+import com.amazonaws.services.lambda.runtime.Context;
+import com.amazonaws.services.lambda.runtime.LambdaLogger;
+import com.amazonaws.services.lambda.runtime.RequestHandler;
+import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyRequestEvent;
+import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyResponseEvent;
+import com.coniungo.app.dto.UserBatchDTO;
+import com.coniungo.app.json.ResponseWriter;
+import com.coniungo.app.model.ApiResponse;
+import com.coniungo.app.service.UserService;
+import com.coniungo.app.service.impl.UserServiceImpl;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+public class GetUsersByIdsHandler extends BaseHandler implements RequestHandler<APIGatewayProxyRequestEvent, APIGatewayProxyResponseEvent> {
+
+    private static final int MAX_IDS = 100;
+
+    private final UserService userService;
+
+    public GetUsersByIdsHandler() {
+        this(new UserServiceImpl());
+    }
+
+    public GetUsersByIdsHandler(UserService userService) {
+        this.userService = userService;
+    }
+
+    @Override
+    public APIGatewayProxyResponseEvent handleRequest(APIGatewayProxyRequestEvent input, Context context) {
+        return observe(input, context, () -> handle(input, context));
+    }
+
+    private APIGatewayProxyResponseEvent handle(APIGatewayProxyRequestEvent input, Context context) {
+        LambdaLogger logger = context.getLogger();
+        logger.log(":::: START GetUsersByIdsHandler.handleRequest ::::");
+
+        APIGatewayProxyResponseEvent response = new APIGatewayProxyResponseEvent();
+        response.setHeaders(Map.of("Content-Type", "application/json"));
+
+        try {
+            // Validate Input: ?ids=1,2,3 on GET, {"ids":[1,2,3]} on POST
+            List<Long> ids = "POST".equalsIgnoreCase(input.getHttpMethod())
+                    ? parseBody(input.getBody())
+                    : parseQuery(input.getQueryStringParameters());
+
+            if (ids.isEmpty()) {
+                logger.log("WARN: Request rejected - No IDs supplied");
+                return buildErrorResponse(400, "Missing 'ids' parameter");
+            }
+
+            if (ids.size() > MAX_IDS) {
+                logger.log("WARN: Request rejected - Too many IDs: " + ids.size());
+                return buildErrorResponse(400, "At most " + MAX_IDS + " IDs may be requested at once");
+            }
+
+            logger.log("INFO: Processing request for " + ids.size() + " user IDs");
+
+            // Call Service Layer
+            UserBatchDTO batch = userService.getUsersByIds(ids, logger);
+
+            // Success Response Logic
+            logger.log("SUCCESS: Retrieved " + batch.getUsers().size()
+                    + " users, " + batch.getMissingIds().size() + " missing");
+
+            ApiResponse<UserBatchDTO> apiResponse = ApiResponse.<UserBatchDTO>builder()
+                    .statusCode(200)
+                    .isSuccessful(true)
+                    .message("Users retrieved successfully")
+                    .data(batch)
+                    .build();
+
+            response.setStatusCode(200);
+            response.setBody(ResponseWriter.toJson(apiResponse));
+
+        } catch (NumberFormatException e) {
+            logger.log("ERROR: Failed to parse user IDs. Invalid format: " + e.getMessage());
+            return buildErrorResponse(400, "Invalid ID format: IDs must be numbers");
+        } catch (JsonProcessingException e) {
+            logger.log("ERROR: Failed to parse request body: " + e.getOriginalMessage());
+            return buildErrorResponse(400, "Request body must be JSON of the form {\"ids\": [...]}");
+        } catch (Exception e) {
+            logger.log("CRITICAL ERROR in GetUsersByIdsHandler: " + e.getMessage());
+            e.printStackTrace();
+            return buildServerErrorResponse(e);
+        }
+
+        logger.log(":::: END GetUsersByIdsHandler.handleRequest [SUCCESS] ::::");
+        return response;
+    }
+
+    private static List<Long> parseQuery(Map<String, String> queryParams) {
+        List<Long> ids = new ArrayList<>();
+
+        if (queryParams == null || queryParams.get("ids") == null) {
+            return ids;
+        }
+
+        for (String raw : queryParams.get("ids").split(",")) {
+            if (!raw.isBlank()) {
+                ids.add(Long.parseLong(raw.trim()));
+            }
+        }
+
+        return ids;
+    }
+
+    private static List<Long> parseBody(String body) throws Exception {
+        List<Long> ids = new ArrayList<>();
+
+        if (body == null || body.isBlank()) {
+            return ids;
+        }
+
+        JsonNode idsNode = objectMapper.readTree(body).path("ids");
+
+        for (JsonNode id : idsNode) {
+            if (!id.canConvertToLong()) {
+                throw new NumberFormatException("Not a valid ID: " + id);
+            }
+            ids.add(id.asLong());
+        }
+
+        return ids;
+    }
+}
@@ -0,0 +1,233 @@
+package com.coniungo.app.handlers;
+
+import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyRequestEvent;
+import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyResponseEvent;
+import com.coniungo.app.json.ReusableByteBuffer;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * Negotiated response compression for API Gateway proxy responses.
+ * <p>
+ * Bodies of at least {@code COMPRESSION_MIN_BYTES} (default 1024) are
+ * compressed with gzip or deflate when the client's {@code Accept-Encoding}
+ * allows it, and returned base64-encoded. The {@link Deflater}, its output
+ * buffer and the CRC are pooled and reused across invocations; a pool rather
+ * than a thread-local, since the HTTP server runs each request on a new
+ * virtual thread.
+ */
+final class ResponseCompression {
+
+    private static final int MIN_BYTES = envInt("COMPRESSION_MIN_BYTES", 1024);
+    private static final int LEVEL = envInt("COMPRESSION_LEVEL", Deflater.DEFAULT_COMPRESSION);
+
+    // Buffers larger than this are not kept for reuse
+    private static final int MAX_RETAINED_BUFFER = 1024 * 1024;
+
+    private static final byte[] GZIP_HEADER = {
+            0x1f, (byte) 0x8b, Deflater.DEFLATED, 0, 0, 0, 0, 0, 0, (byte) 0xff
+    };
+
+    // Idle codecs kept for reuse; compression is CPU-bound, so more never run at once
+    private static final int MAX_IDLE_CODECS = Runtime.getRuntime().availableProcessors() * 2;
+
+    private static final BlockingQueue<Codec> gzipCodecs = new ArrayBlockingQueue<>(MAX_IDLE_CODECS);
+    private static final BlockingQueue<Codec> deflateCodecs = new ArrayBlockingQueue<>(MAX_IDLE_CODECS);
+
+    private ResponseCompression() {
+    }
+
+    static APIGatewayProxyResponseEvent apply(APIGatewayProxyRequestEvent request,
+                                              APIGatewayProxyResponseEvent response) {
+
+        String encoding = encodingFor(request, response);
+
+        if (encoding == null) {
+            return response;
+        }
+
+        byte[] raw = response.getBody().getBytes(StandardCharsets.UTF_8);
+
+        boolean gzip = "gzip".equals(encoding);
+        BlockingQueue<Codec> codecs = gzip ? gzipCodecs : deflateCodecs;
+        Codec codec = codecs.poll();
+
+        if (codec == null) {
+            codec = new Codec(gzip);
+        }
+
+        ReusableByteBuffer compressed = codec.compress(raw);
+
+        Map<String, String> headers = new HashMap<>();
+        if (response.getHeaders() != null) {
+            headers.putAll(response.getHeaders());
+        }
+        headers.put("Content-Encoding", encoding);
+        headers.put("Vary", "Accept-Encoding");
+
+        response.setHeaders(headers);
+        response.setBody(Base64.getEncoder().encodeToString(
+                Arrays.copyOf(compressed.array(), compressed.size())));
+        response.setIsBase64Encoded(true);
+
+        if (compressed.capacity() > MAX_RETAINED_BUFFER || !codecs.offer(codec)) {
+            codec.end();
+        }
+
+        return response;
+    }
+
+    /**
+     * @return the coding {@link #apply} will use for this response, or {@code null} if it is sent as is.
+     */
+    static String encodingFor(APIGatewayProxyRequestEvent request, APIGatewayProxyResponseEvent response) {
+
+        String body = response.getBody();
+
+        // UTF-8 never has fewer bytes than chars, so this also bounds the encoded size
+        if (body == null || body.length() < MIN_BYTES || Boolean.TRUE.equals(response.getIsBase64Encoded())) {
+            return null;
+        }
+
+        return negotiate(header(request, "Accept-Encoding"));
+    }
+
+    /**
+     * Picks gzip, else deflate, honouring {@code q=0} exclusions and {@code *}.
+     */
+    static String negotiate(String acceptEncoding) {
+
+        if (acceptEncoding == null || acceptEncoding.isBlank()) {
+            return null;
+        }
+
+        float gzip = -1;
+        float deflate = -1;
+        float wildcard = -1;
+
+        for (String part : acceptEncoding.split(",")) {
+            String[] tokens = part.trim().split(";");
+            String coding = tokens[0].trim().toLowerCase(Locale.ROOT);
+            float q = 1;
+
+            for (int i = 1; i < tokens.length; i++) {
+                String param = tokens[i].trim();
+                if (param.startsWith("q=")) {
+                    try {
+                        q = Float.parseFloat(param.substring(2));
+                    } catch (NumberFormatException e) {
+                        q = 0;
+                    }
+                }
+            }
+
+            switch (coding) {
+                case "gzip", "x-gzip" -> gzip = q;
+                case "deflate" -> deflate = q;
+                case "*" -> wildcard = q;
+                default -> { }
+            }
+        }
+
+        if (gzip < 0) {
+            gzip = wildcard;
+        }
+        if (deflate < 0) {
+            deflate = wildcard;
+        }
+
+        if (gzip > 0 && gzip >= deflate) {
+            return "gzip";
+        }
+        return deflate > 0 ? "deflate" : null;
+    }
+
+    static String header(APIGatewayProxyRequestEvent request, String name) {
+
+        Map<String, String> headers = request == null ? null : request.getHeaders();
+
+        if (headers == null) {
+            return null;
+        }
+
+        for (Map.Entry<String, String> header : headers.entrySet()) {
+            if (name.equalsIgnoreCase(header.getKey())) {
+                return header.getValue();
+            }
+        }
+
+        return null;
+    }
+
+    private static int envInt(String name, int defaultValue) {
+        String value = System.getenv(name);
+        return value == null || value.isBlank() ? defaultValue : Integer.parseInt(value.trim());
+    }
+
+    /**
+     * Pooled compressor state, reused across invocations.
+     */
+    private static final class Codec {
+
+        private final boolean gzip;
+        private final Deflater deflater;
+        private final CRC32 crc = new CRC32();
+        private final ReusableByteBuffer out = new ReusableByteBuffer(8192);
+        private final byte[] chunk = new byte[8192];
+
+        Codec(boolean gzip) {
+            this.gzip = gzip;
+            // gzip frames raw deflate data itself; "deflate" is the zlib format
+            this.deflater = new Deflater(LEVEL, gzip);
+        }
+
+        ReusableByteBuffer compress(byte[] input) {
+            out.reset();
+            deflater.reset();
+
+            if (gzip) {
+                out.write(GZIP_HEADER, 0, GZIP_HEADER.length);
+            }
+
+            deflater.setInput(input);
+            deflater.finish();
+
+            while (!deflater.finished()) {
+                int n = deflater.deflate(chunk);
+                out.write(chunk, 0, n);
+            }
+
+            if (gzip) {
+                crc.reset();
+                crc.update(input);
+                writeIntLE((int) crc.getValue());
+                writeIntLE(input.length);
+            }
+
+            return out;
+        }
+
+        /**
+         * Frees the deflater's native memory now rather than when it is collected.
+         */
+        void end() {
+            deflater.end();
+        }
+
+        private void writeIntLE(int value) {
+            out.write(value & 0xff);
+            out.write((value >>> 8) & 0xff);
+            out.write((value >>> 16) & 0xff);
+            out.write((value >>> 24) & 0xff);
+        }
+    }
+}
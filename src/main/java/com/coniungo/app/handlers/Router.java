@@ -0,0 +1,144 @@
+package com.coniungo.app.handlers;
+
+import com.amazonaws.services.lambda.runtime.RequestHandler;
+import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyRequestEvent;
+import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyResponseEvent;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Route table from HTTP method and path to a handler, built once and
+ * matched segment by segment without regular expressions.
+ * <p>
+ * Patterns are literal segments and {@code {name}} parameters, e.g.
+ * {@code /api/v1/users/{id}}. Routes are bucketed by method and segment
+ * count, and within a bucket literal segments win over parameters, so
+ * {@code /users/batch} is matched before {@code /users/{id}}.
+ */
+final class Router {
+
+    private record Route(String[] segments, boolean[] parameters, int parameterCount,
+                         RequestHandler<APIGatewayProxyRequestEvent, APIGatewayProxyResponseEvent> target) {
+    }
+
+    record Match(RequestHandler<APIGatewayProxyRequestEvent, APIGatewayProxyResponseEvent> target,
+                 Map<String, String> pathParameters) {
+    }
+
+    // method -> segment count -> routes, fewest parameters first
+    private final Map<String, Map<Integer, List<Route>>> routes = new HashMap<>();
+
+    Router add(String method,
+               String pattern,
+               RequestHandler<APIGatewayProxyRequestEvent, APIGatewayProxyResponseEvent> target) {
+
+        String[] segments = split(pattern);
+        boolean[] parameters = new boolean[segments.length];
+        int parameterCount = 0;
+
+        for (int i = 0; i < segments.length; i++) {
+            String segment = segments[i];
+
+            if (segment.startsWith("{") && segment.endsWith("}")) {
+                segments[i] = segment.substring(1, segment.length() - 1);
+                parameters[i] = true;
+                parameterCount++;
+            }
+        }
+
+        List<Route> bucket = routes
+                .computeIfAbsent(method.toUpperCase(), m -> new HashMap<>())
+                .computeIfAbsent(segments.length, n -> new ArrayList<>());
+
+        bucket.add(new Route(segments, parameters, parameterCount, target));
+        bucket.sort(Comparator.comparingInt(Route::parameterCount));
+        return this;
+    }
+
+    /**
+     * @return the matching route with its path parameters, or {@code null} if none matches.
+     */
+    Match match(String method, String path) {
+        Map<Integer, List<Route>> byLength = method == null ? null : routes.get(method.toUpperCase());
+
+        if (byLength == null || path == null) {
+            return null;
+        }
+
+        String[] segments = split(path);
+        List<Route> candidates = byLength.get(segments.length);
+
+        if (candidates == null) {
+            return null;
+        }
+
+        for (Route route : candidates) {
+            Map<String, String> parameters = matchSegments(route, segments);
+
+            if (parameters != null) {
+                return new Match(route.target(), parameters);
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * @return whether any method has a route for the path, to tell 405 from 404.
+     */
+    boolean hasPath(String path) {
+        if (path == null) {
+            return false;
+        }
+
+        String[] segments = split(path);
+
+        for (Map<Integer, List<Route>> byLength : routes.values()) {
+            List<Route> candidates = byLength.get(segments.length);
+
+            if (candidates != null) {
+                for (Route route : candidates) {
+                    if (matchSegments(route, segments) != null) {
+                        return true;
+                    }
+                }
+            }
+        }
+
+        return false;
+    }
+
+    private static Map<String, String> matchSegments(Route route, String[] segments) {
+        Map<String, String> parameters = route.parameterCount() == 0 ? Map.of() : new HashMap<>(4);
+
+        for (int i = 0; i < segments.length; i++) {
+            if (route.parameters()[i]) {
+                parameters.put(route.segments()[i], segments[i]);
+            } else if (!route.segments()[i].equals(segments[i])) {
+                return null;
+            }
+        }
+
+        return parameters;
+    }
+
+    private static String[] split(String path) {
+        List<String> segments = new ArrayList<>(8);
+        int start = 0;
+
+        for (int i = 0; i <= path.length(); i++) {
+            if (i == path.length() || path.charAt(i) == '/') {
+                if (i > start) {
+                    segments.add(path.substring(start, i));
+                }
+                start = i + 1;
+            }
+        }
+
+        return segments.toArray(new String[0]);
+    }
+}
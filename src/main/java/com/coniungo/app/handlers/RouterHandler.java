@@ -0,0 +1,73 @@
+package com.coniungo.app.handlers;
+
+import com.amazonaws.services.lambda.runtime.Context;
+import com.amazonaws.services.lambda.runtime.RequestHandler;
+import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyRequestEvent;
+import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyResponseEvent;
+import com.coniungo.app.service.UserService;
+import com.coniungo.app.service.impl.UserServiceImpl;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Serves every user endpoint from one function, so warm containers and
+ * their pools are shared instead of each endpoint paying its own cold starts.
+ * <p>
+ * Requests are dispatched on method and path to the regular handlers, which
+ * still apply conditional GETs, compression and metrics themselves; path
+ * parameters are passed on as the event's {@code pathParameters}.
+ */
+public class RouterHandler extends BaseHandler implements RequestHandler<APIGatewayProxyRequestEvent, APIGatewayProxyResponseEvent> {
+
+    private final Router router;
+
+    public RouterHandler() {
+        this(new UserServiceImpl());
+    }
+
+    public RouterHandler(UserService userService) {
+        GetUserHandler getUser = new GetUserHandler(userService);
+        GetAllUsersHandler getAllUsers = new GetAllUsersHandler(userService);
+        GetUsersByIdsHandler getUsersByIds = new GetUsersByIdsHandler(userService);
+        SearchUsersHandler searchUsers = new SearchUsersHandler(userService);
+
+        this.router = new Router()
+                .add("GET", "/api/v1/users", getAllUsers)
+                .add("GET", "/api/v1/user", getUser)
+                .add("GET", "/api/v1/users/{id}", getUser)
+                .add("GET", "/api/v1/users/batch", getUsersByIds)
+                .add("GET", "/api/v1/users/search", searchUsers)
+                .add("POST", "/api/v1/users/batch", getUsersByIds);
+    }
+
+    @Override
+    public APIGatewayProxyResponseEvent handleRequest(APIGatewayProxyRequestEvent input, Context context) {
+        Router.Match match = router.match(input.getHttpMethod(), input.getPath());
+
+        if (match == null) {
+            return observe(input, context, () -> notRouted(input, context));
+        }
+
+        if (!match.pathParameters().isEmpty()) {
+            Map<String, String> parameters = input.getPathParameters() == null
+                    ? new HashMap<>()
+                    : new HashMap<>(input.getPathParameters());
+
+            parameters.putAll(match.pathParameters());
+            input.setPathParameters(parameters);
+        }
+
+        return match.target().handleRequest(input, context);
+    }
+
+    private APIGatewayProxyResponseEvent notRouted(APIGatewayProxyRequestEvent input, Context context) {
+        if (router.hasPath(input.getPath())) {
+            context.getLogger().log("WARN: Method not allowed: " + input.getHttpMethod() + " " + input.getPath());
+            return buildErrorResponse(405, "Method not allowed");
+        }
+
+        context.getLogger().log("WARN: No route for " + input.getHttpMethod() + " " + input.getPath());
+        return buildErrorResponse(404, "Not found");
+    }
+}
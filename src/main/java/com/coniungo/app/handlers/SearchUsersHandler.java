@@ -0,0 +1,111 @@
+package com.coniungo.app.handlers;
+
+import com.amazonaws.services.lambda.runtime.Context;
+import com.amazonaws.services.lambda.runtime.LambdaLogger;
+import com.amazonaws.services.lambda.runtime.RequestHandler;
+import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyRequestEvent;
+import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyResponseEvent;
+import com.coniungo.app.dao.Page;
+import com.coniungo.app.dto.UserDTO;
+import com.coniungo.app.json.ResponseWriter;
+import com.coniungo.app.model.ApiResponse;
+import com.coniungo.app.model.PageInfo;
+import com.coniungo.app.service.UserService;
+import com.coniungo.app.service.impl.UserServiceImpl;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Case-insensitive prefix search on username or email:
+ * {@code GET /api/v1/users/search?q=jo&field=username&limit=20}.
+ * <p>
+ * Results are ordered by the matched value, then ID; pass {@code nextCursor}
+ * back as {@code cursor} with the same {@code q} and {@code field} for the
+ * next page.
+ */
+public class SearchUsersHandler extends BaseHandler implements RequestHandler<APIGatewayProxyRequestEvent, APIGatewayProxyResponseEvent> {
+
+    private static final int DEFAULT_LIMIT = 20;
+
+    private final UserService userService;
+
+    public SearchUsersHandler() {
+        this(new UserServiceImpl());
+    }
+
+    public SearchUsersHandler(UserService userService) {
+        this.userService = userService;
+    }
+
+    @Override
+    public APIGatewayProxyResponseEvent handleRequest(APIGatewayProxyRequestEvent input, Context context) {
+        return observe(input, context, () -> handle(input, context));
+    }
+
+    private APIGatewayProxyResponseEvent handle(APIGatewayProxyRequestEvent input, Context context) {
+        LambdaLogger logger = context.getLogger();
+        logger.log(":::: START SearchUsersHandler.handleRequest ::::");
+
+        APIGatewayProxyResponseEvent response = new APIGatewayProxyResponseEvent();
+        response.setHeaders(Map.of("Content-Type", "application/json"));
+
+        try {
+            // Validate Input
+            Map<String, String> queryParams = input.getQueryStringParameters() == null
+                    ? Map.of()
+                    : input.getQueryStringParameters();
+
+            String prefix = queryParams.get("q");
+            String field = queryParams.getOrDefault("field", "username");
+            String cursor = queryParams.get("cursor");
+            int limit = queryParams.containsKey("limit") ? Integer.parseInt(queryParams.get("limit")) : DEFAULT_LIMIT;
+
+            if (prefix == null || prefix.isBlank()) {
+                logger.log("WARN: Request rejected - missing 'q' parameter");
+                return buildErrorResponse(400, "Query parameter 'q' is required");
+            }
+
+            logger.log(String.format("INFO: Searching users (Field: %s, Prefix: %s, Limit: %d)", field, prefix, limit));
+
+            Page<UserDTO> page = userService.searchUsers(prefix, field, limit, cursor, logger);
+
+            List<UserDTO> items = page.getItems();
+            String nextCursor = page.isHasMore() && !items.isEmpty()
+                    ? userService.searchCursor(field, items.get(items.size() - 1))
+                    : null;
+
+            // Success Response Logic
+            logger.log("SUCCESS: Found " + items.size() + " users");
+
+            ApiResponse<List<UserDTO>> apiResponse = ApiResponse.<List<UserDTO>>builder()
+                    .statusCode(200)
+                    .isSuccessful(true)
+                    .message("Users retrieved successfully")
+                    .data(items)
+                    .nextCursor(nextCursor)
+                    .pagination(PageInfo.builder()
+                            .pageSize(limit)
+                            .hasMore(page.isHasMore())
+                            .build())
+                    .build();
+
+            response.setStatusCode(200);
+            response.setBody(ResponseWriter.toJson(apiResponse));
+
+        } catch (NumberFormatException e) {
+            logger.log("WARN: Invalid search parameters: " + e.getMessage());
+            return buildErrorResponse(400, "limit must be numeric");
+        } catch (IllegalArgumentException e) {
+            logger.log("WARN: Invalid search parameters: " + e.getMessage());
+            return buildErrorResponse(400, e.getMessage());
+        } catch (Exception e) {
+            logger.log("CRITICAL ERROR in SearchUsersHandler: " + e.getMessage());
+            e.printStackTrace();
+            return buildServerErrorResponse(e);
+        }
+
+        logger.log(":::: END SearchUsersHandler.handleRequest [SUCCESS] ::::");
+        return response;
+    }
+}
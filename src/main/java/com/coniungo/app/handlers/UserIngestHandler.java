@@ -0,0 +1,164 @@
+package com.coniungo.app.handlers;
+
+import com.amazonaws.services.lambda.runtime.Context;
+import com.amazonaws.services.lambda.runtime.LambdaLogger;
+import com.amazonaws.services.lambda.runtime.RequestHandler;
+import com.amazonaws.services.lambda.runtime.events.SQSBatchResponse;
+import com.amazonaws.services.lambda.runtime.events.SQSEvent;
+import com.coniungo.app.dao.PgDataService;
+import com.coniungo.app.model.User;
+import com.coniungo.app.service.UserService;
+import com.coniungo.app.service.impl.UserServiceImpl;
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Consumes user create/update events from SQS, one JSON object per message:
+ * {@code {"id": 42, "username": "...", "email": "..."}}.
+ * <p>
+ * A batch is collapsed to the last event per user ID and written with one
+ * multi-row upsert in a single transaction. Malformed messages are reported
+ * as batch item failures so only they are retried (and eventually moved to
+ * the dead-letter queue). If the batch write fails, each user is retried on
+ * its own and only the messages of users that still fail are reported.
+ */
+public class UserIngestHandler extends BaseHandler implements RequestHandler<SQSEvent, SQSBatchResponse> {
+
+    // Time to spare after the last per-user attempt to build and return the response
+    private static final long RESPONSE_MARGIN_MS = 1000;
+
+    // A per-user attempt may wait for a connection and then run up to the statement timeout,
+    // so none starts unless it can fail by itself before the function times out
+    private static final long FALLBACK_RESERVE_MS =
+            PgDataService.connectionTimeoutMillis() + PgDataService.statementTimeoutMillis() + RESPONSE_MARGIN_MS;
+
+    private final UserService userService;
+
+    public UserIngestHandler() {
+        this(new UserServiceImpl());
+    }
+
+    public UserIngestHandler(UserService userService) {
+        this.userService = userService;
+    }
+
+    @Override
+    public SQSBatchResponse handleRequest(SQSEvent event, Context context) {
+        return measure(context, () -> handle(event, context),
+                response -> response.getBatchItemFailures().isEmpty() ? 200 : 207);
+    }
+
+    private SQSBatchResponse handle(SQSEvent event, Context context) {
+        LambdaLogger logger = context.getLogger();
+        logger.log(":::: START UserIngestHandler.handleRequest ::::");
+
+        List<SQSEvent.SQSMessage> messages = event.getRecords() == null ? List.of() : event.getRecords();
+        List<SQSBatchResponse.BatchItemFailure> failures = new ArrayList<>();
+
+        // Last event per ID, plus every message folded into it so a failed write can report them all
+        Map<Long, User> latest = new LinkedHashMap<>();
+        Map<Long, List<String>> messageIds = new LinkedHashMap<>();
+
+        for (SQSEvent.SQSMessage message : messages) {
+            User user;
+
+            try {
+                user = parse(message.getBody());
+            } catch (Exception e) {
+                logger.log("WARN: Rejected message " + message.getMessageId() + ": " + e.getMessage());
+                failures.add(failure(message.getMessageId()));
+                continue;
+            }
+
+            latest.put(user.getId(), user);
+            messageIds.computeIfAbsent(user.getId(), id -> new ArrayList<>(1)).add(message.getMessageId());
+        }
+
+        logger.log("INFO: Received " + messages.size() + " messages, " + latest.size()
+                + " distinct users, " + failures.size() + " malformed");
+
+        if (!latest.isEmpty()) {
+            try {
+                long written = userService.upsertUsers(latest.values(), logger);
+                logger.log("SUCCESS: Upserted " + written + " users in one batch");
+
+            } catch (Exception e) {
+                logger.log("WARN: Batch upsert failed, retrying users one by one: " + e.getMessage());
+                failures.addAll(upsertEach(latest, messageIds, context));
+            }
+        }
+
+        logger.log(":::: END UserIngestHandler.handleRequest [" + failures.size() + " failed] ::::");
+        return new SQSBatchResponse(failures);
+    }
+
+    /**
+     * Isolates the users that make the batch fail, e.g. by violating a constraint.
+     * Users not reached before the time reserve are reported as failed and retried later.
+     * The reserve only bounds the statement if {@code DB_STATEMENT_TIMEOUT_MS} is set.
+     */
+    private List<SQSBatchResponse.BatchItemFailure> upsertEach(Map<Long, User> latest,
+                                                              Map<Long, List<String>> messageIds,
+                                                              Context context) {
+        LambdaLogger logger = context.getLogger();
+        List<SQSBatchResponse.BatchItemFailure> failures = new ArrayList<>();
+
+        for (User user : latest.values()) {
+            if (context.getRemainingTimeInMillis() < FALLBACK_RESERVE_MS) {
+                for (String messageId : messageIds.get(user.getId())) {
+                    failures.add(failure(messageId));
+                }
+                continue;
+            }
+
+            try {
+                userService.upsertUsers(List.of(user), logger);
+            } catch (Exception e) {
+                logger.log("ERROR: Upsert failed for user " + user.getId() + ": " + e.getMessage());
+
+                for (String messageId : messageIds.get(user.getId())) {
+                    failures.add(failure(messageId));
+                }
+            }
+        }
+
+        return failures;
+    }
+
+    private static User parse(String body) throws Exception {
+        if (body == null || body.isBlank()) {
+            throw new IllegalArgumentException("Empty body");
+        }
+
+        JsonNode node = objectMapper.readTree(body);
+        JsonNode id = node.path("id");
+
+        if (!id.isIntegralNumber() || !id.canConvertToLong() || id.asLong() <= 0) {
+            throw new IllegalArgumentException("'id' must be a positive number");
+        }
+
+        return User.builder()
+                .id(id.asLong())
+                .username(requiredText(node, "username"))
+                .email(requiredText(node, "email"))
+                .build();
+    }
+
+    private static String requiredText(JsonNode node, String field) {
+        JsonNode value = node.path(field);
+
+        if (!value.isTextual() || value.asText().isBlank()) {
+            throw new IllegalArgumentException("'" + field + "' must be a non-empty string");
+        }
+
+        return value.asText();
+    }
+
+    private static SQSBatchResponse.BatchItemFailure failure(String messageId) {
+        return new SQSBatchResponse.BatchItemFailure(messageId);
+    }
+}
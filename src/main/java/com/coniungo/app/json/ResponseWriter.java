@@ -0,0 +1,260 @@
+package com.coniungo.app.json;
+
+import com.coniungo.app.dto.UserBatchDTO;
+import com.coniungo.app.dto.UserDTO;
+import com.coniungo.app.metrics.InvocationMetrics;
+import com.coniungo.app.metrics.Phase;
+import com.coniungo.app.model.ApiResponse;
+import com.coniungo.app.model.PageInfo;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Hand-written streaming JSON writers for every response type, on top of
+ * Jackson's core generator only.
+ * <p>
+ * Nothing is discovered reflectively at runtime: field names are pre-encoded
+ * once, and each type has a fixed writer, so the first request of a cold
+ * container pays no bean-introspection cost. Output is byte-for-byte what
+ * {@code ObjectMapper} produced for the same Lombok types, including the
+ * {@code successful} name and position Jackson derives from {@code isSuccessful()}.
+ */
+public final class ResponseWriter {
+
+    private static final JsonFactory factory = new JsonFactory();
+
+    // Buffers larger than this are not kept for reuse, so one huge page cannot pin memory
+    private static final int MAX_RETAINED_BUFFER = 1024 * 1024;
+
+    // Pooled rather than per thread: the HTTP server runs each request on a new virtual thread
+    private static final int MAX_IDLE_BUFFERS = Runtime.getRuntime().availableProcessors() * 2;
+
+    private static final BlockingQueue<ReusableByteBuffer> buffers = new ArrayBlockingQueue<>(MAX_IDLE_BUFFERS);
+
+    private static final SerializedString STATUS_CODE = new SerializedString("statusCode");
+    private static final SerializedString SUCCESSFUL = new SerializedString("successful");
+    private static final SerializedString MESSAGE = new SerializedString("message");
+    private static final SerializedString DATA = new SerializedString("data");
+    private static final SerializedString NEXT_CURSOR = new SerializedString("nextCursor");
+    private static final SerializedString PAGINATION = new SerializedString("pagination");
+
+    private static final SerializedString ID = new SerializedString("id");
+    private static final SerializedString USERNAME = new SerializedString("username");
+    private static final SerializedString EMAIL = new SerializedString("email");
+
+    private static final SerializedString USERS = new SerializedString("users");
+    private static final SerializedString MISSING_IDS = new SerializedString("missingIds");
+
+    private static final SerializedString PAGE_SIZE = new SerializedString("pageSize");
+    private static final SerializedString PAGE_NUMBER = new SerializedString("pageNumber");
+    private static final SerializedString HAS_MORE = new SerializedString("hasMore");
+    private static final SerializedString TOTAL_ESTIMATE = new SerializedString("totalEstimate");
+    private static final SerializedString EXACT_TOTAL = new SerializedString("exactTotal");
+
+    private ResponseWriter() {
+    }
+
+    /**
+     * Serializes the response into a pooled buffer and returns it; hand it
+     * back with {@link #release} once its bytes have been used.
+     */
+    public static ReusableByteBuffer toBuffer(ApiResponse<?> response) {
+        ReusableByteBuffer buffer = buffers.poll();
+
+        if (buffer == null) {
+            buffer = new ReusableByteBuffer(8192);
+        }
+
+        buffer.reset();
+
+        long start = System.nanoTime();
+
+        try (JsonGenerator gen = createGenerator(buffer)) {
+            writeResponse(gen, response);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Response serialization failed", e);
+        }
+
+        InvocationMetrics.current().record(Phase.SERIALIZATION, System.nanoTime() - start);
+        return buffer;
+    }
+
+    public static String toJson(ApiResponse<?> response) {
+        ReusableByteBuffer buffer = toBuffer(response);
+        String json = buffer.toUtf8String();
+        release(buffer);
+        return json;
+    }
+
+    public static void release(ReusableByteBuffer buffer) {
+        if (buffer.capacity() <= MAX_RETAINED_BUFFER) {
+            buffers.offer(buffer);
+        }
+    }
+
+    public static JsonGenerator createGenerator(OutputStream out) throws IOException {
+        return factory.createGenerator(out);
+    }
+
+    public static void writeResponse(JsonGenerator gen, ApiResponse<?> response) throws IOException {
+        gen.writeStartObject();
+
+        gen.writeFieldName(STATUS_CODE);
+        gen.writeNumber(response.getStatusCode());
+        gen.writeFieldName(MESSAGE);
+        writeString(gen, response.getMessage());
+        gen.writeFieldName(DATA);
+        writeData(gen, response.getData());
+
+        if (response.getNextCursor() != null) {
+            writeNextCursor(gen, response.getNextCursor());
+        }
+        if (response.getPagination() != null) {
+            writePagination(gen, response.getPagination());
+        }
+
+        writeEnvelopeEnd(gen, response.isSuccessful());
+    }
+
+    /**
+     * Writes the head of an envelope, up to and including the {@code data}
+     * field name, for callers that stream the data themselves; finish with
+     * {@link #writeEnvelopeEnd}.
+     */
+    public static void writeEnvelopeStart(JsonGenerator gen, int statusCode, String message) throws IOException {
+        gen.writeStartObject();
+        gen.writeFieldName(STATUS_CODE);
+        gen.writeNumber(statusCode);
+        gen.writeFieldName(MESSAGE);
+        writeString(gen, message);
+        gen.writeFieldName(DATA);
+    }
+
+    /**
+     * Jackson orders {@code successful} last, since the Lombok getter
+     * {@code isSuccessful()} does not match the field name; keep that order.
+     */
+    public static void writeEnvelopeEnd(JsonGenerator gen, boolean successful) throws IOException {
+        gen.writeFieldName(SUCCESSFUL);
+        gen.writeBoolean(successful);
+        gen.writeEndObject();
+    }
+
+    public static void writeNextCursor(JsonGenerator gen, String cursor) throws IOException {
+        gen.writeFieldName(NEXT_CURSOR);
+        gen.writeString(cursor);
+    }
+
+    public static void writePagination(JsonGenerator gen, PageInfo page) throws IOException {
+        gen.writeFieldName(PAGINATION);
+        gen.writeStartObject();
+
+        gen.writeFieldName(PAGE_SIZE);
+        gen.writeNumber(page.getPageSize());
+
+        if (page.getPageNumber() != null) {
+            gen.writeFieldName(PAGE_NUMBER);
+            gen.writeNumber(page.getPageNumber());
+        }
+
+        gen.writeFieldName(HAS_MORE);
+        gen.writeBoolean(page.isHasMore());
+
+        if (page.getTotalEstimate() != null) {
+            gen.writeFieldName(TOTAL_ESTIMATE);
+            gen.writeNumber(page.getTotalEstimate());
+        }
+
+        gen.writeFieldName(EXACT_TOTAL);
+        gen.writeBoolean(page.isExactTotal());
+
+        gen.writeEndObject();
+    }
+
+    public static void writeUser(JsonGenerator gen, UserDTO user) throws IOException {
+        if (user == null) {
+            gen.writeNull();
+            return;
+        }
+
+        gen.writeStartObject();
+        gen.writeFieldName(ID);
+        writeLong(gen, user.getId());
+        gen.writeFieldName(USERNAME);
+        writeString(gen, user.getUsername());
+        gen.writeFieldName(EMAIL);
+        writeString(gen, user.getEmail());
+        gen.writeEndObject();
+    }
+
+    public static void writeUserBatch(JsonGenerator gen, UserBatchDTO batch) throws IOException {
+        gen.writeStartObject();
+
+        gen.writeFieldName(USERS);
+        writeList(gen, batch.getUsers());
+
+        gen.writeFieldName(MISSING_IDS);
+        writeList(gen, batch.getMissingIds());
+
+        gen.writeEndObject();
+    }
+
+    private static void writeData(JsonGenerator gen, Object data) throws IOException {
+        if (data == null) {
+            gen.writeNull();
+        } else if (data instanceof UserDTO user) {
+            writeUser(gen, user);
+        } else if (data instanceof List<?> list) {
+            writeList(gen, list);
+        } else if (data instanceof UserBatchDTO batch) {
+            writeUserBatch(gen, batch);
+        } else {
+            throw new IllegalArgumentException("No JSON writer for " + data.getClass().getName());
+        }
+    }
+
+    private static void writeList(JsonGenerator gen, List<?> list) throws IOException {
+        if (list == null) {
+            gen.writeNull();
+            return;
+        }
+
+        gen.writeStartArray();
+
+        for (int i = 0, n = list.size(); i < n; i++) {
+            Object item = list.get(i);
+
+            if (item instanceof Long id) {
+                gen.writeNumber(id);
+            } else {
+                writeData(gen, item);
+            }
+        }
+
+        gen.writeEndArray();
+    }
+
+    private static void writeString(JsonGenerator gen, String value) throws IOException {
+        if (value == null) {
+            gen.writeNull();
+        } else {
+            gen.writeString(value);
+        }
+    }
+
+    private static void writeLong(JsonGenerator gen, Long value) throws IOException {
+        if (value == null) {
+            gen.writeNull();
+        } else {
+            gen.writeNumber(value);
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.coniungo.app.json;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Growable byte buffer that is reset and reused across invocations instead
+ * of reallocated, exposing its backing array to avoid copies.
+ */
+public final class ReusableByteBuffer extends ByteArrayOutputStream {
+
+    public ReusableByteBuffer(int initialCapacity) {
+        super(initialCapacity);
+    }
+
+    /**
+     * The backing array; only the first {@link #size()} bytes are valid.
+     */
+    public byte[] array() {
+        return buf;
+    }
+
+    public int capacity() {
+        return buf.length;
+    }
+
+    public String toUtf8String() {
+        return new String(buf, 0, count, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,67 @@
+package com.coniungo.app.lifecycle;
+
+import com.amazonaws.services.lambda.runtime.LambdaLogger;
+import com.coniungo.app.dao.PgDataService;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Tracks whether an invocation is the first one served by this JVM (or by
+ * this snapshot restore) and reports how long init and that first
+ * invocation took, so primed and unprimed deployments can be compared.
+ */
+public final class ColdStart {
+
+    private static final AtomicBoolean pendingFirstInvocation = new AtomicBoolean(true);
+
+    private static volatile boolean restored;
+    private static volatile boolean primed;
+    private static volatile long restoredAtNanos;
+
+    private ColdStart() {
+    }
+
+    /**
+     * @return {@code true} exactly once per JVM start or snapshot restore.
+     */
+    public static boolean claimFirstInvocation() {
+        return pendingFirstInvocation.getAndSet(false);
+    }
+
+    public static boolean isRestored() {
+        return restored;
+    }
+
+    public static boolean isPrimed() {
+        return primed;
+    }
+
+    static void markPrimed() {
+        primed = true;
+    }
+
+    static void markRestored() {
+        restored = true;
+        restoredAtNanos = System.nanoTime();
+        pendingFirstInvocation.set(true);
+    }
+
+    /**
+     * Logs one {@code COLD_START} line for the first invocation.
+     *
+     * @param invocationStartNanos {@link System#nanoTime()} when the invocation began.
+     * @param invocationNanos how long the invocation took.
+     */
+    public static void report(LambdaLogger logger, long invocationStartNanos, long invocationNanos) {
+        long initMs = restored
+                ? (invocationStartNanos - restoredAtNanos) / 1_000_000
+                : ManagementFactory.getRuntimeMXBean().getUptime() - invocationNanos / 1_000_000;
+
+        logger.log("COLD_START mode=" + (restored ? "restore" : "jvm")
+                + " primed=" + primed
+                + " initMs=" + initMs
+                + " firstInvocationMs=" + invocationNanos / 1_000_000
+                + " db=[" + PgDataService.acquireMetrics() + "]");
+    }
+}
@@ -1,6 +1,8 @@
 package com.coniungo.app.mappers;
 
 import com.coniungo.app.dto.UserDTO;
+import com.coniungo.app.metrics.InvocationMetrics;
+import com.coniungo.app.metrics.Phase;
 import com.coniungo.app.model.User;
 
 public class UserMapper {
@@ -8,10 +10,15 @@ public class UserMapper {
     public static UserDTO toDTO(User user) {
         if (user == null) return null;
 
-        return UserDTO.builder()
+        long start = System.nanoTime();
+
+        UserDTO dto = UserDTO.builder()
                 .id(user.getId())
                 .username(user.getUsername())
                 .email(user.getEmail())
                 .build();
+
+        InvocationMetrics.current().record(Phase.DTO_MAPPING, System.nanoTime() - start);
+        return dto;
     }
 }
@@ -0,0 +1,47 @@
+package com.coniungo.app.mappers;
+
+import com.coniungo.app.dao.DatabaseService;
+import com.coniungo.app.model.User;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+
+/**
+ * Maps {@code "User"} rows to {@link User}, selecting only the columns it
+ * reads and reading them by index.
+ */
+public final class UserRowMapper implements DatabaseService.ProjectionMapper<User> {
+
+    public static final UserRowMapper INSTANCE = new UserRowMapper();
+
+    private static final List<String> COLUMNS = List.of("id", "username", "email");
+    private static final String PROJECTION = String.join(", ", COLUMNS);
+
+    // 1-based positions within PROJECTION
+    private static final int ID = 1;
+    private static final int USERNAME = 2;
+    private static final int EMAIL = 3;
+
+    private UserRowMapper() {
+    }
+
+    @Override
+    public List<String> columns() {
+        return COLUMNS;
+    }
+
+    @Override
+    public String projection() {
+        return PROJECTION;
+    }
+
+    @Override
+    public User mapRow(ResultSet rs) throws SQLException {
+        return User.builder()
+                .id(rs.getLong(ID))
+                .username(rs.getString(USERNAME))
+                .email(rs.getString(EMAIL))
+                .build();
+    }
+}
@@ -0,0 +1,39 @@
+package com.coniungo.app.mappers;
+
+import com.coniungo.app.dao.DatabaseService;
+import com.coniungo.app.model.User;
+import com.coniungo.app.model.Versioned;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+
+/**
+ * Maps {@code "User"} rows together with their row version, read in the same
+ * statement so the version always matches the data it is returned with.
+ */
+public final class VersionedUserRowMapper implements DatabaseService.ProjectionMapper<Versioned<User>> {
+
+    private final List<String> columns;
+    private final String projection;
+
+    public VersionedUserRowMapper(String versionColumn) {
+        this.columns = List.of("id", "username", "email", "CAST(" + versionColumn + " AS text)");
+        this.projection = String.join(", ", columns);
+    }
+
+    @Override
+    public List<String> columns() {
+        return columns;
+    }
+
+    @Override
+    public String projection() {
+        return projection;
+    }
+
+    @Override
+    public Versioned<User> mapRow(ResultSet rs) throws SQLException {
+        return new Versioned<>(UserRowMapper.INSTANCE.mapRow(rs), rs.getString(4));
+    }
+}
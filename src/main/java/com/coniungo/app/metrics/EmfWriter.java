@@ -0,0 +1,189 @@
+package com.coniungo.app.metrics;
+
+import com.amazonaws.services.lambda.runtime.LambdaLogger;
+import com.coniungo.app.json.ResponseWriter;
+import com.coniungo.app.json.ReusableByteBuffer;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Writes one CloudWatch Embedded Metric Format line per invocation.
+ * <p>
+ * CloudWatch extracts the metrics from the log line itself, so no agent,
+ * SDK call, or extra latency is involved. Timings are in milliseconds with
+ * microsecond resolution; the request ID and status code are kept as
+ * properties, searchable in Logs Insights but not metric dimensions.
+ */
+public final class EmfWriter {
+
+    private static final String NAMESPACE =
+            System.getenv().getOrDefault("METRICS_NAMESPACE", "Coniungo/UserApi");
+
+    // Pooled rather than per thread: the HTTP server runs each request on a new virtual thread
+    private static final int MAX_IDLE_BUFFERS = Runtime.getRuntime().availableProcessors() * 2;
+
+    private static final BlockingQueue<ReusableByteBuffer> buffers = new ArrayBlockingQueue<>(MAX_IDLE_BUFFERS);
+
+    private static final SerializedString AWS = new SerializedString("_aws");
+    private static final SerializedString TIMESTAMP = new SerializedString("Timestamp");
+    private static final SerializedString CLOUDWATCH_METRICS = new SerializedString("CloudWatchMetrics");
+    private static final SerializedString NAMESPACE_FIELD = new SerializedString("Namespace");
+    private static final SerializedString DIMENSIONS = new SerializedString("Dimensions");
+    private static final SerializedString METRICS = new SerializedString("Metrics");
+    private static final SerializedString NAME = new SerializedString("Name");
+    private static final SerializedString UNIT = new SerializedString("Unit");
+
+    private static final SerializedString FUNCTION = new SerializedString("Function");
+    private static final SerializedString ROWS_READ = new SerializedString("RowsRead");
+    private static final SerializedString ROWS_WRITTEN = new SerializedString("RowsWritten");
+    private static final SerializedString POOL_ACQUIRES = new SerializedString("PoolAcquires");
+    private static final SerializedString COLD_START = new SerializedString("ColdStart");
+    private static final SerializedString INIT_TYPE = new SerializedString("InitType");
+    private static final SerializedString PRIMED = new SerializedString("Primed");
+    private static final SerializedString REQUEST_ID = new SerializedString("RequestId");
+    private static final SerializedString STATUS_CODE = new SerializedString("StatusCode");
+
+    private static final SerializedString[] PHASE_NAMES = new SerializedString[Phase.ALL.length];
+
+    static {
+        for (Phase phase : Phase.ALL) {
+            PHASE_NAMES[phase.ordinal()] = new SerializedString(phase.metricName());
+        }
+    }
+
+    private EmfWriter() {
+    }
+
+    /**
+     * Logs the invocation's metrics; does nothing for a detached instance.
+     *
+     * @param initType {@code "jvm"} or {@code "restore"}.
+     * @param statusCode the response status, or 0 if the invocation threw.
+     */
+    public static void emit(LambdaLogger logger,
+                            InvocationMetrics metrics,
+                            String function,
+                            String requestId,
+                            int statusCode,
+                            String initType,
+                            boolean primed) {
+
+        if (!metrics.isRecording()) {
+            return;
+        }
+
+        logger.log(format(metrics, function, requestId, statusCode, initType, primed, System.currentTimeMillis()));
+    }
+
+    private static String format(InvocationMetrics metrics,
+                                 String function,
+                                 String requestId,
+                                 int statusCode,
+                                 String initType,
+                                 boolean primed,
+                                 long timestampMillis) {
+
+        ReusableByteBuffer buffer = buffers.poll();
+
+        if (buffer == null) {
+            buffer = new ReusableByteBuffer(1024);
+        }
+
+        buffer.reset();
+
+        try (JsonGenerator gen = ResponseWriter.createGenerator(buffer)) {
+            gen.writeStartObject();
+
+            writeMetadata(gen, timestampMillis);
+
+            gen.writeFieldName(FUNCTION);
+            gen.writeString(function);
+
+            for (Phase phase : Phase.ALL) {
+                gen.writeFieldName(PHASE_NAMES[phase.ordinal()]);
+                gen.writeNumber(metrics.nanos(phase) / 1_000L / 1_000.0);
+            }
+
+            gen.writeFieldName(ROWS_READ);
+            gen.writeNumber(metrics.rowsRead());
+            gen.writeFieldName(ROWS_WRITTEN);
+            gen.writeNumber(metrics.rowsWritten());
+            gen.writeFieldName(POOL_ACQUIRES);
+            gen.writeNumber(metrics.count(Phase.POOL_ACQUIRE));
+            gen.writeFieldName(COLD_START);
+            gen.writeNumber(metrics.isColdStart() ? 1 : 0);
+
+            gen.writeFieldName(INIT_TYPE);
+            gen.writeString(initType);
+            gen.writeFieldName(PRIMED);
+            gen.writeBoolean(primed);
+            gen.writeFieldName(REQUEST_ID);
+            gen.writeString(requestId);
+            gen.writeFieldName(STATUS_CODE);
+            gen.writeNumber(statusCode);
+
+            gen.writeEndObject();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Metrics serialization failed", e);
+        }
+
+        String line = buffer.toUtf8String();
+        buffers.offer(buffer);
+        return line;
+    }
+
+    private static void writeMetadata(JsonGenerator gen, long timestampMillis) throws IOException {
+        gen.writeFieldName(AWS);
+        gen.writeStartObject();
+
+        gen.writeFieldName(TIMESTAMP);
+        gen.writeNumber(timestampMillis);
+
+        gen.writeFieldName(CLOUDWATCH_METRICS);
+        gen.writeStartArray();
+        gen.writeStartObject();
+
+        gen.writeFieldName(NAMESPACE_FIELD);
+        gen.writeString(NAMESPACE);
+
+        gen.writeFieldName(DIMENSIONS);
+        gen.writeStartArray();
+        gen.writeStartArray();
+        gen.writeString("Function");
+        gen.writeEndArray();
+        gen.writeEndArray();
+
+        gen.writeFieldName(METRICS);
+        gen.writeStartArray();
+
+        for (Phase phase : Phase.ALL) {
+            writeDefinition(gen, PHASE_NAMES[phase.ordinal()], "Milliseconds");
+        }
+
+        writeDefinition(gen, ROWS_READ, "Count");
+        writeDefinition(gen, ROWS_WRITTEN, "Count");
+        writeDefinition(gen, POOL_ACQUIRES, "Count");
+        writeDefinition(gen, COLD_START, "Count");
+
+        gen.writeEndArray();
+
+        gen.writeEndObject();
+        gen.writeEndArray();
+
+        gen.writeEndObject();
+    }
+
+    private static void writeDefinition(JsonGenerator gen, SerializedString name, String unit) throws IOException {
+        gen.writeStartObject();
+        gen.writeFieldName(NAME);
+        gen.writeString(name);
+        gen.writeFieldName(UNIT);
+        gen.writeString(unit);
+        gen.writeEndObject();
+    }
+}
@@ -0,0 +1,123 @@
+package com.coniungo.app.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Per-invocation accumulator for phase timings and row counts.
+ * <p>
+ * Each invocation gets a fresh instance, so recording is a couple of atomic
+ * adds and async work that outlives the invocation (e.g. a count query left
+ * running after the page query failed) cannot write into another one's.
+ * Work handed to other threads (the async DAO) carries the instance along
+ * via {@link #attach}; everything else records into a detached instance that
+ * ignores the calls.
+ */
+public final class InvocationMetrics {
+
+    private static final boolean ENABLED =
+            !"false".equalsIgnoreCase(System.getenv("METRICS_ENABLED"));
+
+    private static final InvocationMetrics DETACHED = new InvocationMetrics(false, false);
+
+    private static final ThreadLocal<InvocationMetrics> bound = new ThreadLocal<>();
+
+    private final boolean recording;
+
+    private final AtomicLongArray nanos = new AtomicLongArray(Phase.ALL.length);
+    private final AtomicLongArray counts = new AtomicLongArray(Phase.ALL.length);
+
+    private final AtomicLong rowsRead = new AtomicLong();
+    private final AtomicLong rowsWritten = new AtomicLong();
+
+    private final boolean coldStart;
+
+    private InvocationMetrics(boolean recording, boolean coldStart) {
+        this.recording = recording;
+        this.coldStart = coldStart;
+    }
+
+    /**
+     * Binds a new instance to this thread; pair with {@link #end}.
+     *
+     * @return the bound instance, or a detached one if METRICS_ENABLED is false.
+     */
+    public static InvocationMetrics begin(boolean coldStart) {
+
+        if (!ENABLED) {
+            return DETACHED;
+        }
+
+        InvocationMetrics metrics = new InvocationMetrics(true, coldStart);
+        bound.set(metrics);
+        return metrics;
+    }
+
+    public static void end() {
+        bound.remove();
+    }
+
+    /**
+     * @return the instance bound to this thread, or a detached one that records nothing.
+     */
+    public static InvocationMetrics current() {
+        InvocationMetrics metrics = bound.get();
+        return metrics == null ? DETACHED : metrics;
+    }
+
+    /**
+     * Binds an invocation's instance to a worker thread; pair with {@link #detach}.
+     */
+    public static void attach(InvocationMetrics metrics) {
+        if (metrics.recording) {
+            bound.set(metrics);
+        }
+    }
+
+    public static void detach() {
+        bound.remove();
+    }
+
+    public boolean isRecording() {
+        return recording;
+    }
+
+    public void record(Phase phase, long elapsedNanos) {
+        if (recording) {
+            nanos.addAndGet(phase.ordinal(), elapsedNanos);
+            counts.incrementAndGet(phase.ordinal());
+        }
+    }
+
+    public void addRowsRead(long rows) {
+        if (recording) {
+            rowsRead.addAndGet(rows);
+        }
+    }
+
+    public void addRowsWritten(long rows) {
+        if (recording) {
+            rowsWritten.addAndGet(rows);
+        }
+    }
+
+    public long nanos(Phase phase) {
+        return nanos.get(phase.ordinal());
+    }
+
+    public long count(Phase phase) {
+        return counts.get(phase.ordinal());
+    }
+
+    public long rowsRead() {
+        return rowsRead.get();
+    }
+
+    public long rowsWritten() {
+        return rowsWritten.get();
+    }
+
+    public boolean isColdStart() {
+        return coldStart;
+    }
+}
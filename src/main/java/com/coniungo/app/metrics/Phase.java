@@ -0,0 +1,27 @@
+package com.coniungo.app.metrics;
+
+/**
+ * Timed phases of one invocation, each emitted as its own metric.
+ */
+public enum Phase {
+
+    POOL_ACQUIRE("PoolAcquireTime"),
+    QUERY("QueryTime"),
+    ROW_MAPPING("RowMappingTime"),
+    DTO_MAPPING("DtoMappingTime"),
+    SERIALIZATION("SerializationTime"),
+    TOTAL("TotalTime");
+
+    // values() clones its array on every call
+    static final Phase[] ALL = values();
+
+    private final String metricName;
+
+    Phase(String metricName) {
+        this.metricName = metricName;
+    }
+
+    public String metricName() {
+        return metricName;
+    }
+}
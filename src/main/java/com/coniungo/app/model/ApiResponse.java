@@ -1,6 +1,7 @@
 package com.coniungo.app.model;
 
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.*;
 
 @Data
@@ -12,4 +13,11 @@ public class ApiResponse<T> {
     private boolean isSuccessful;
     private String message;
     private T data;
-}
\ No newline at end of file
+
+    // Opaque keyset cursor for the next page; absent on the last page and on non-list responses.
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String nextCursor;
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private PageInfo pagination;
+}
@@ -0,0 +1,19 @@
+package com.coniungo.app.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.*;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class PageInfo {
+    private int pageSize;
+    // Only set for legacy pageNumber requests
+    private Integer pageNumber;
+    private boolean hasMore;
+    // Approximate row count (planner statistics) unless exactTotal is true; absent if unknown
+    private Long totalEstimate;
+    private boolean exactTotal;
+}
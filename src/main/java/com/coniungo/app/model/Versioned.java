@@ -0,0 +1,13 @@
+package com.coniungo.app.model;
+
+import lombok.*;
+
+/**
+ * A value together with the row version it was read at.
+ */
+@Data
+@AllArgsConstructor
+public class Versioned<T> {
+    private T value;
+    private String version;
+}
@@ -0,0 +1,254 @@
+package com.coniungo.app.runtime;
+
+import com.amazonaws.services.lambda.runtime.RequestStreamHandler;
+import com.coniungo.app.json.ResponseWriter;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.lang.reflect.InvocationTargetException;
+import java.net.HttpURLConnection;
+import java.net.Socket;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Map;
+
+/**
+ * Entry point of the native image. With {@code RESPONSE_STREAMING=true} the
+ * {@link RequestStreamHandler} named by the handler argument runs in this
+ * class's own Runtime API loop, which sends its output to the caller as it
+ * is written; otherwise the AWS runtime interface client takes over, which
+ * buffers every response.
+ * <p>
+ * Responses are posted in {@code streaming} mode as HTTP integration
+ * responses, so the handler starts its output with {@link #writeHttpPrelude}.
+ * Writes block while the caller reads slowly, which holds the handler back.
+ * A handler that throws after output has begun is reported in the error
+ * trailers, so the caller sees the response fail instead of end early.
+ */
+public final class StreamingRuntime {
+
+    private static final String RIC_MAIN = "com.amazonaws.services.lambda.runtime.api.client.AWSLambda";
+
+    private static final String API_VERSION = "/2018-06-01/runtime";
+
+    // Separates the HTTP prelude from the body in an HTTP integration response
+    private static final byte[] PRELUDE_DELIMITER = new byte[8];
+
+    private final String host;
+    private final int port;
+
+    StreamingRuntime(String runtimeApi) {
+        int colon = runtimeApi.lastIndexOf(':');
+        this.host = runtimeApi.substring(0, colon);
+        this.port = Integer.parseInt(runtimeApi.substring(colon + 1));
+    }
+
+    public static void main(String[] args) throws Throwable {
+        String handlerName = args.length > 0 ? args[0] : System.getenv("_HANDLER");
+
+        if (!Boolean.parseBoolean(System.getenv("RESPONSE_STREAMING"))) {
+            try {
+                Class.forName(RIC_MAIN).getMethod("main", String[].class).invoke(null, (Object) args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+            return;
+        }
+
+        StreamingRuntime runtime = new StreamingRuntime(System.getenv("AWS_LAMBDA_RUNTIME_API"));
+        RequestStreamHandler handler;
+
+        try {
+            // Handler settings read "Class::method"; a stream handler has only one method
+            String className = handlerName.split("::")[0];
+            handler = (RequestStreamHandler) Class.forName(className).getDeclaredConstructor().newInstance();
+        } catch (Exception e) {
+            runtime.postError(API_VERSION + "/init/error", e);
+            System.exit(1);
+            return;
+        }
+
+        runtime.run(handler);
+    }
+
+    /**
+     * Serves invocations until the execution environment is shut down.
+     */
+    void run(RequestStreamHandler handler) throws IOException {
+        while (true) {
+            HttpURLConnection next = open(API_VERSION + "/invocation/next");
+            byte[] event;
+
+            try {
+                event = next.getInputStream().readAllBytes();
+            } finally {
+                next.disconnect();
+            }
+
+            String requestId = next.getHeaderField("Lambda-Runtime-Aws-Request-Id");
+            String traceId = next.getHeaderField("Lambda-Runtime-Trace-Id");
+
+            if (traceId != null) {
+                System.setProperty("com.amazonaws.xray.traceHeader", traceId);
+            }
+
+            InvocationContext context = new InvocationContext(
+                    requestId,
+                    Long.parseLong(next.getHeaderField("Lambda-Runtime-Deadline-Ms")),
+                    next.getHeaderField("Lambda-Runtime-Invoked-Function-Arn"));
+
+            respond(handler, event, context);
+        }
+    }
+
+    private void respond(RequestStreamHandler handler, byte[] event, InvocationContext context) throws IOException {
+        try (Socket socket = new Socket(host, port)) {
+            OutputStream raw = new BufferedOutputStream(socket.getOutputStream());
+
+            String head = "POST " + API_VERSION + "/invocation/" + context.getAwsRequestId() + "/response HTTP/1.1\r\n"
+                    + "Host: " + host + ":" + port + "\r\n"
+                    + "Lambda-Runtime-Function-Response-Mode: streaming\r\n"
+                    + "Content-Type: application/vnd.awslambda.http-integration-response\r\n"
+                    + "Transfer-Encoding: chunked\r\n"
+                    + "Trailer: Lambda-Runtime-Function-Error-Type, Lambda-Runtime-Function-Error-Body\r\n"
+                    + "Connection: close\r\n"
+                    + "\r\n";
+            raw.write(head.getBytes(StandardCharsets.US_ASCII));
+
+            ChunkedOutputStream body = new ChunkedOutputStream(raw);
+            Throwable failure = null;
+
+            try {
+                handler.handleRequest(new ByteArrayInputStream(event), body, context);
+            } catch (Throwable t) {
+                failure = t;
+                context.getLogger().log("ERROR: Invocation failed: " + t);
+            }
+
+            body.finish(failure);
+
+            // 202 once the Runtime API has taken the whole response; nothing to do either way
+            String status = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII))
+                    .readLine();
+
+            if (status == null || !status.contains(" 202 ")) {
+                context.getLogger().log("WARN: Runtime API rejected the response: " + status);
+            }
+        }
+    }
+
+    private void postError(String path, Throwable error) throws IOException {
+        HttpURLConnection conn = open(path);
+        conn.setRequestMethod("POST");
+        conn.setDoOutput(true);
+        conn.setRequestProperty("Lambda-Runtime-Function-Error-Type", error.getClass().getName());
+        conn.setRequestProperty("Content-Type", "application/json");
+
+        try (OutputStream out = conn.getOutputStream()) {
+            out.write(errorJson(error));
+        }
+
+        conn.getResponseCode();
+        conn.disconnect();
+    }
+
+    private HttpURLConnection open(String path) throws IOException {
+        HttpURLConnection conn = (HttpURLConnection) URI.create("http://" + host + ":" + port + path).toURL().openConnection();
+        // /next long-polls until an invocation arrives
+        conn.setReadTimeout(0);
+        return conn;
+    }
+
+    /**
+     * Starts an HTTP integration response: status and headers, then the
+     * delimiter; everything written afterwards is the body.
+     */
+    public static void writeHttpPrelude(OutputStream out, int statusCode, Map<String, String> headers) throws IOException {
+        try (JsonGenerator gen = ResponseWriter.createGenerator(out)) {
+            gen.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            gen.writeStartObject();
+            gen.writeNumberField("statusCode", statusCode);
+            gen.writeObjectFieldStart("headers");
+
+            for (Map.Entry<String, String> header : headers.entrySet()) {
+                gen.writeStringField(header.getKey(), header.getValue());
+            }
+
+            gen.writeEndObject();
+            gen.writeEndObject();
+        }
+
+        out.write(PRELUDE_DELIMITER);
+    }
+
+    private static byte[] errorJson(Throwable error) throws IOException {
+        ByteArrayOutputStream json = new ByteArrayOutputStream();
+
+        try (JsonGenerator gen = ResponseWriter.createGenerator(json)) {
+            gen.writeStartObject();
+            gen.writeStringField("errorMessage", String.valueOf(error.getMessage()));
+            gen.writeStringField("errorType", error.getClass().getName());
+            gen.writeEndObject();
+        }
+
+        return json.toByteArray();
+    }
+
+    /**
+     * HTTP/1.1 chunked body on the Runtime API socket. The handler's
+     * {@code close()} only flushes; {@link #finish} ends the body, with the
+     * error trailers if the handler failed.
+     */
+    private static final class ChunkedOutputStream extends FilterOutputStream {
+
+        ChunkedOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            write(new byte[]{(byte) b}, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            if (len == 0) {
+                return;
+            }
+
+            out.write((Integer.toHexString(len) + "\r\n").getBytes(StandardCharsets.US_ASCII));
+            out.write(b, off, len);
+            out.write('\r');
+            out.write('\n');
+            // Each chunk goes out as soon as the handler hands it over
+            out.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            flush();
+        }
+
+        void finish(Throwable failure) throws IOException {
+            StringBuilder end = new StringBuilder("0\r\n");
+
+            if (failure != null) {
+                end.append("Lambda-Runtime-Function-Error-Type: ").append(failure.getClass().getName()).append("\r\n")
+                        .append("Lambda-Runtime-Function-Error-Body: ")
+                        .append(Base64.getEncoder().encodeToString(errorJson(failure))).append("\r\n");
+            }
+
+            end.append("\r\n");
+            out.write(end.toString().getBytes(StandardCharsets.US_ASCII));
+            out.flush();
+        }
+    }
+}
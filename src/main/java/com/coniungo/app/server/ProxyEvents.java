@@ -0,0 +1,142 @@
+package com.coniungo.app.server;
+
+import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyRequestEvent;
+import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyResponseEvent;
+import com.sun.net.httpserver.Headers;
+import com.sun.net.httpserver.HttpExchange;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URI;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Translates between HTTP exchanges and the API Gateway proxy events the
+ * handlers consume, the way a REST API proxy integration would: path and
+ * query parameters URL-decoded, single-value maps holding the last value of
+ * a repeated header or parameter, and base64 bodies decoded on the way out.
+ */
+final class ProxyEvents {
+
+    // API Gateway's payload limit
+    static final int MAX_BODY_BYTES = 10 * 1024 * 1024;
+
+    private static final byte[] NO_BODY = new byte[0];
+
+    private ProxyEvents() {
+    }
+
+    /**
+     * @return the request body, or {@code null} if it exceeds {@link #MAX_BODY_BYTES}.
+     */
+    static byte[] readBody(HttpExchange exchange) throws IOException {
+        byte[] body = exchange.getRequestBody().readNBytes(MAX_BODY_BYTES + 1);
+        return body.length > MAX_BODY_BYTES ? null : body;
+    }
+
+    static APIGatewayProxyRequestEvent toEvent(HttpExchange exchange, byte[] body) {
+        URI uri = exchange.getRequestURI();
+
+        Map<String, String> headers = new HashMap<>();
+        Map<String, List<String>> multiValueHeaders = new HashMap<>();
+
+        for (Map.Entry<String, List<String>> header : exchange.getRequestHeaders().entrySet()) {
+            List<String> values = header.getValue();
+
+            if (!values.isEmpty()) {
+                headers.put(header.getKey(), values.get(values.size() - 1));
+                multiValueHeaders.put(header.getKey(), values);
+            }
+        }
+
+        Map<String, List<String>> multiValueQuery = parseQuery(uri.getRawQuery());
+        Map<String, String> query = null;
+
+        if (!multiValueQuery.isEmpty()) {
+            query = new HashMap<>();
+
+            for (Map.Entry<String, List<String>> parameter : multiValueQuery.entrySet()) {
+                List<String> values = parameter.getValue();
+                query.put(parameter.getKey(), values.get(values.size() - 1));
+            }
+        }
+
+        return new APIGatewayProxyRequestEvent()
+                .withHttpMethod(exchange.getRequestMethod())
+                .withPath(uri.getPath())
+                .withHeaders(headers)
+                .withMultiValueHeaders(multiValueHeaders)
+                .withQueryStringParameters(query)
+                .withMultiValueQueryStringParameters(multiValueQuery.isEmpty() ? null : multiValueQuery)
+                .withBody(body.length == 0 ? null : new String(body, StandardCharsets.UTF_8))
+                .withIsBase64Encoded(false);
+    }
+
+    static void write(HttpExchange exchange, APIGatewayProxyResponseEvent response) throws IOException {
+        Headers out = exchange.getResponseHeaders();
+
+        if (response.getHeaders() != null) {
+            response.getHeaders().forEach(out::set);
+        }
+
+        if (response.getMultiValueHeaders() != null) {
+            response.getMultiValueHeaders().forEach((name, values) -> out.put(name, new ArrayList<>(values)));
+        }
+
+        String body = response.getBody();
+        byte[] bytes;
+
+        if (body == null) {
+            bytes = NO_BODY;
+        } else if (Boolean.TRUE.equals(response.getIsBase64Encoded())) {
+            bytes = Base64.getDecoder().decode(body);
+        } else {
+            bytes = body.getBytes(StandardCharsets.UTF_8);
+        }
+
+        int status = response.getStatusCode() == null ? 200 : response.getStatusCode();
+
+        write(exchange, status, bytes);
+    }
+
+    static void write(HttpExchange exchange, int status, byte[] body) throws IOException {
+        boolean empty = body.length == 0 || status == 204 || status == 304 || "HEAD".equals(exchange.getRequestMethod());
+
+        // -1: no body; a length of 0 would mean chunked
+        exchange.sendResponseHeaders(status, empty ? -1 : body.length);
+
+        if (!empty) {
+            try (OutputStream os = exchange.getResponseBody()) {
+                os.write(body);
+            }
+        }
+    }
+
+    private static Map<String, List<String>> parseQuery(String rawQuery) {
+        Map<String, List<String>> parameters = new HashMap<>();
+
+        if (rawQuery == null || rawQuery.isEmpty()) {
+            return parameters;
+        }
+
+        for (String pair : rawQuery.split("&")) {
+            if (pair.isEmpty()) {
+                continue;
+            }
+
+            int eq = pair.indexOf('=');
+            String name = URLDecoder.decode(eq < 0 ? pair : pair.substring(0, eq), StandardCharsets.UTF_8);
+            String value = eq < 0 ? "" : URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8);
+
+            parameters.computeIfAbsent(name, n -> new ArrayList<>(1)).add(value);
+        }
+
+        return parameters;
+    }
+}
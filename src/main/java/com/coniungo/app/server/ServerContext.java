@@ -0,0 +1,107 @@
+package com.coniungo.app.server;
+
+import com.amazonaws.services.lambda.runtime.ClientContext;
+import com.amazonaws.services.lambda.runtime.CognitoIdentity;
+import com.amazonaws.services.lambda.runtime.Context;
+import com.amazonaws.services.lambda.runtime.LambdaLogger;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lambda {@link Context} for one request served by {@link UserApiServer}.
+ * <p>
+ * All requests share one stdout logger filtered by {@code SERVER_LOG_LEVEL}:
+ * {@code warn} (default) prints only {@code WARN}/{@code ERROR}/{@code CRITICAL}
+ * lines, {@code info} prints every handler line including the EMF metrics, and
+ * {@code off} prints nothing. At thousands of requests per second, printing
+ * every line would make the console the bottleneck.
+ */
+final class ServerContext implements Context {
+
+    private static final String LOG_LEVEL =
+            System.getenv().getOrDefault("SERVER_LOG_LEVEL", "warn").trim().toLowerCase(Locale.ROOT);
+
+    private static final AtomicLong requestIds = new AtomicLong();
+
+    static final LambdaLogger LOGGER = new LambdaLogger() {
+        @Override
+        public void log(String message) {
+            if (enabled(message)) {
+                System.out.println(message);
+            }
+        }
+
+        @Override
+        public void log(byte[] message) {
+            log(new String(message, StandardCharsets.UTF_8));
+        }
+    };
+
+    private final String requestId = "server-" + requestIds.incrementAndGet();
+
+    private static boolean enabled(String message) {
+        return switch (LOG_LEVEL) {
+            case "info" -> true;
+            case "off" -> false;
+            default -> message.startsWith("WARN") || message.startsWith("ERROR") || message.startsWith("CRITICAL");
+        };
+    }
+
+    @Override
+    public String getAwsRequestId() {
+        return requestId;
+    }
+
+    @Override
+    public String getLogGroupName() {
+        return null;
+    }
+
+    @Override
+    public String getLogStreamName() {
+        return null;
+    }
+
+    @Override
+    public String getFunctionName() {
+        return "user-api-server";
+    }
+
+    @Override
+    public String getFunctionVersion() {
+        return "$LATEST";
+    }
+
+    @Override
+    public String getInvokedFunctionArn() {
+        return null;
+    }
+
+    @Override
+    public CognitoIdentity getIdentity() {
+        return null;
+    }
+
+    @Override
+    public ClientContext getClientContext() {
+        return null;
+    }
+
+    @Override
+    public int getRemainingTimeInMillis() {
+        // No invocation deadline outside Lambda
+        return Integer.MAX_VALUE;
+    }
+
+    @Override
+    public int getMemoryLimitInMB() {
+        return (int) (Runtime.getRuntime().maxMemory() / (1024 * 1024));
+    }
+
+    @Override
+    public LambdaLogger getLogger() {
+        return LOGGER;
+    }
+}
@@ -0,0 +1,247 @@
+package com.coniungo.app.server;
+
+import com.amazonaws.services.lambda.runtime.LambdaLogger;
+import com.amazonaws.services.lambda.runtime.RequestHandler;
+import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyRequestEvent;
+import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyResponseEvent;
+import com.coniungo.app.dao.PgDataService;
+import com.coniungo.app.handlers.RouterHandler;
+import com.coniungo.app.json.ResponseWriter;
+import com.coniungo.app.model.ApiResponse;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Serves the user API from a long-running process, e.g. a container on ECS,
+ * through the same {@link RouterHandler} the Lambda functions use.
+ * <p>
+ * HTTP requests are translated into API Gateway proxy events, so routing,
+ * conditional GETs, compression and metrics behave exactly as on Lambda. Each
+ * request runs on its own virtual thread: thousands can be in flight while
+ * they wait on the one shared connection pool ({@code DB_POOL_MAX_SIZE},
+ * default 10 outside Lambda) without a platform thread each. Beyond
+ * {@code SERVER_MAX_IN_FLIGHT} (10000) requests are answered 503 at once.
+ * Backpressure on the database sits at connection acquisition instead: a
+ * request that gets no connection within {@code DB_CONNECTION_TIMEOUT_MS}
+ * (1 s here) is answered 503, while cache hits never wait on the pool.
+ * <p>
+ * {@code GET /health} answers 200 while serving and 503 once shutdown has
+ * begun. On SIGTERM the server reports unhealthy for
+ * {@code SERVER_DRAIN_DELAY_SECONDS} (0), lets in-flight requests finish for
+ * up to {@code SERVER_SHUTDOWN_TIMEOUT_SECONDS} (20), then closes the
+ * listener, its connections and the pool. Requests arriving while it drains
+ * are still served; by then the load balancer should have stopped sending.
+ */
+public final class UserApiServer {
+
+    private static final int PORT = envInt("PORT", 8080);
+    private static final int MAX_IN_FLIGHT = envInt("SERVER_MAX_IN_FLIGHT", 10_000);
+    private static final int BACKLOG = envInt("SERVER_BACKLOG", 4096);
+    private static final int DRAIN_DELAY_SECONDS = envInt("SERVER_DRAIN_DELAY_SECONDS", 0);
+    private static final int SHUTDOWN_TIMEOUT_SECONDS = envInt("SERVER_SHUTDOWN_TIMEOUT_SECONDS", 20);
+
+    private static final LambdaLogger logger = ServerContext.LOGGER;
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final RequestHandler<APIGatewayProxyRequestEvent, APIGatewayProxyResponseEvent> handler;
+
+    private final Semaphore inFlight = new Semaphore(MAX_IN_FLIGHT);
+    private final AtomicBoolean stopping = new AtomicBoolean();
+    private volatile boolean draining;
+
+    private UserApiServer(InetSocketAddress address,
+                          RequestHandler<APIGatewayProxyRequestEvent, APIGatewayProxyResponseEvent> handler) throws IOException {
+        // The JDK default of 200 closes keep-alive connections of busy clients; read once, on first use
+        System.getProperties().putIfAbsent("sun.net.httpserver.maxIdleConnections", "2000");
+
+        this.handler = handler;
+        this.executor = Executors.newVirtualThreadPerTaskExecutor();
+        this.server = HttpServer.create(address, BACKLOG);
+
+        server.setExecutor(executor);
+        server.createContext("/health", this::health);
+        server.createContext("/", this::serve);
+    }
+
+    public static void main(String[] args) throws IOException {
+        long start = System.nanoTime();
+
+        RouterHandler router = new RouterHandler();
+
+        try {
+            PgDataService.warmUp();
+        } catch (RuntimeException e) {
+            // The pool keeps retrying; requests fail until the database is reachable
+            logger.log("WARN: Database warm-up failed: " + e.getMessage());
+        }
+
+        UserApiServer server = start(new InetSocketAddress(PORT), router);
+        Runtime.getRuntime().addShutdownHook(new Thread(server::stop, "user-api-shutdown"));
+
+        // Startup is always logged, whatever SERVER_LOG_LEVEL
+        System.out.printf("INFO: Listening on port %d in %d ms (%d processors, pool of %d connections, max %d in flight)%n",
+                server.port(), (System.nanoTime() - start) / 1_000_000,
+                Runtime.getRuntime().availableProcessors(), PgDataService.maxConnections(), MAX_IN_FLIGHT);
+    }
+
+    /**
+     * Starts serving {@code handler} on {@code address}; port 0 picks a free port.
+     */
+    public static UserApiServer start(InetSocketAddress address,
+                                      RequestHandler<APIGatewayProxyRequestEvent, APIGatewayProxyResponseEvent> handler) throws IOException {
+        UserApiServer server = new UserApiServer(address, handler);
+        server.server.start();
+        return server;
+    }
+
+    public int port() {
+        return server.getAddress().getPort();
+    }
+
+    /**
+     * Drains and stops the server, then closes the connection pool; only the first call has an effect.
+     */
+    public void stop() {
+        if (!stopping.compareAndSet(false, true)) {
+            return;
+        }
+
+        long start = System.nanoTime();
+        draining = true;
+
+        System.out.println("INFO: Shutting down, " + inFlight() + " requests in flight");
+
+        if (DRAIN_DELAY_SECONDS > 0) {
+            // Lets the load balancer see the failing health check before connections are refused
+            sleep(TimeUnit.SECONDS.toMillis(DRAIN_DELAY_SECONDS));
+        }
+
+        // HttpServer.stop(delay) sits out the whole delay on JDK 21 even once idle, so wait here instead
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(SHUTDOWN_TIMEOUT_SECONDS);
+
+        while (inFlight() > 0 && System.nanoTime() - deadline < 0) {
+            sleep(20);
+        }
+
+        // Closes the listener and every connection, aborting requests still running past the timeout
+        server.stop(0);
+
+        executor.shutdown();
+
+        try {
+            if (!executor.awaitTermination(1, TimeUnit.SECONDS)) {
+                executor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        int abandoned = inFlight();
+        PgDataService.closeConnectionProvider();
+
+        System.out.printf("INFO: Stopped in %d ms, %d requests abandoned%n",
+                (System.nanoTime() - start) / 1_000_000, abandoned);
+    }
+
+    private void serve(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            if (!inFlight.tryAcquire()) {
+                exchange.getResponseHeaders().set("Retry-After", "1");
+                writeError(exchange, 503, "Server busy");
+                return;
+            }
+
+            try {
+                byte[] body = ProxyEvents.readBody(exchange);
+
+                if (body == null) {
+                    writeError(exchange, 413, "Request body exceeds " + ProxyEvents.MAX_BODY_BYTES + " bytes");
+                    return;
+                }
+
+                APIGatewayProxyRequestEvent event;
+
+                try {
+                    event = ProxyEvents.toEvent(exchange, body);
+                } catch (IllegalArgumentException e) {
+                    // Malformed percent-encoding in the query string
+                    writeError(exchange, 400, "Malformed query string");
+                    return;
+                }
+
+                ProxyEvents.write(exchange, handler.handleRequest(event, new ServerContext()));
+
+            } catch (IOException e) {
+                // Client went away; nothing left to answer
+                logger.log("WARN: " + exchange.getRequestMethod() + " " + exchange.getRequestURI().getPath()
+                        + " aborted: " + e.getMessage());
+
+            } catch (RuntimeException e) {
+                logger.log("ERROR: Unhandled exception for " + exchange.getRequestMethod() + " "
+                        + exchange.getRequestURI().getPath() + ": " + e);
+
+                if (exchange.getResponseCode() == -1) {
+                    writeError(exchange, 500, "Internal Server Error");
+                }
+            } finally {
+                inFlight.release();
+            }
+        }
+    }
+
+    private void health(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            // Contexts match by prefix, e.g. /healthz
+            if (!"/health".equals(exchange.getRequestURI().getPath())) {
+                writeError(exchange, 404, "Not found");
+                return;
+            }
+
+            int status = draining ? 503 : 200;
+            String body = "{\"status\":\"" + (draining ? "DRAINING" : "UP") + "\",\"inFlight\":" + inFlight() + "}";
+
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.getResponseHeaders().set("Cache-Control", "no-store");
+            ProxyEvents.write(exchange, status, body.getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    private static void writeError(HttpExchange exchange, int status, String message) throws IOException {
+        ApiResponse<Object> error = ApiResponse.builder()
+                .statusCode(status)
+                .isSuccessful(false)
+                .message(message)
+                .data(null)
+                .build();
+
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        ProxyEvents.write(exchange, status, ResponseWriter.toJson(error).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private int inFlight() {
+        return MAX_IN_FLIGHT - inFlight.availablePermits();
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static int envInt(String name, int defaultValue) {
+        String value = System.getenv(name);
+        return value == null || value.isBlank() ? defaultValue : Integer.parseInt(value.trim());
+    }
+}
@@ -1,12 +1,47 @@
 package com.coniungo.app.service;
 
 import com.amazonaws.services.lambda.runtime.LambdaLogger;
+import com.coniungo.app.dao.DatabaseService;
+import com.coniungo.app.dao.Page;
+import com.coniungo.app.dto.UserBatchDTO;
 import com.coniungo.app.dto.UserDTO;
+import com.coniungo.app.model.User;
+import com.coniungo.app.model.Versioned;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 public interface UserService {
+    int MAX_SEARCH_LIMIT = 100;
+
     Optional<UserDTO> getUserById(Long id, LambdaLogger logger);
-    List<UserDTO> getAllUsers(int pageSize, int pageNumber, LambdaLogger logger);
+    // Row versions back cheap conditional GETs; only available when a version column is configured
+    boolean hasRowVersions();
+    // Cached like getUserById; the version always belongs to the returned data
+    Optional<Versioned<UserDTO>> getVersionedUserById(Long id, LambdaLogger logger);
+    UserBatchDTO getUsersByIds(Collection<Long> ids, LambdaLogger logger);
+    Page<UserDTO> getAllUsers(int pageSize, int pageNumber, LambdaLogger logger);
+    Page<UserDTO> getUsersAfter(Long lastId, int pageSize, LambdaLogger logger);
+    // Case-insensitive prefix search on "username" or "email", at most MAX_SEARCH_LIMIT per page;
+    // cursor is null or the searchCursor of the previous page's last user for the same field
+    Page<UserDTO> searchUsers(String prefix, String field, int limit, String cursor, LambdaLogger logger);
+    String searchCursor(String field, UserDTO last);
+    // Cached planner estimate unless exact; null when no estimate is available
+    Long getTotalUsers(boolean exact, LambdaLogger logger);
+
+    // Async variants, for fanning out independent lookups within one request
+    CompletableFuture<Optional<UserDTO>> getUserByIdAsync(Long id, LambdaLogger logger);
+    CompletableFuture<UserBatchDTO> getUsersByIdsAsync(Collection<Long> ids, LambdaLogger logger);
+    CompletableFuture<Page<UserDTO>> getUsersAfterAsync(Long lastId, int pageSize, LambdaLogger logger);
+    CompletableFuture<Long> getTotalUsersAsync(boolean exact, LambdaLogger logger);
+
+    // Whole-table export through one server-side cursor; limit 0 streams every row after lastId
+    void exportUsers(Long lastId, int limit, DatabaseService.RowCallback<UserDTO> callback, LambdaLogger logger);
+
+    // Inserts or updates all users in one transaction, last one per ID winning; returns rows written
+    long upsertUsers(Collection<User> users, LambdaLogger logger);
+
+    void streamUsersAfter(Long lastId, int pageSize, DatabaseService.RowCallback<UserDTO> callback, LambdaLogger logger);
 }
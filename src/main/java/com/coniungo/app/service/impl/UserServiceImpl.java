@@ -1,46 +1,221 @@
 package com.coniungo.app.service.impl;
 
 import com.amazonaws.services.lambda.runtime.LambdaLogger;
+import com.coniungo.app.cache.CacheStats;
+import com.coniungo.app.cache.ReadThroughCache;
+import com.coniungo.app.cache.RefreshingValue;
+import com.coniungo.app.dao.AsyncDatabaseService;
+import com.coniungo.app.dao.AsyncPgDataService;
 import com.coniungo.app.dao.DatabaseService;
+import com.coniungo.app.dao.Page;
 import com.coniungo.app.dao.PgDataService;
+import com.coniungo.app.dto.UserBatchDTO;
 import com.coniungo.app.dto.UserDTO;
 import com.coniungo.app.mappers.UserMapper;
+import com.coniungo.app.mappers.UserRowMapper;
+import com.coniungo.app.mappers.VersionedUserRowMapper;
 import com.coniungo.app.model.User;
+import com.coniungo.app.model.Versioned;
 import com.coniungo.app.service.UserService;
+import com.coniungo.app.utils.CursorCodec;
+import com.coniungo.app.utils.InvalidCursorException;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 
 public class UserServiceImpl implements UserService {
 
-    private final DatabaseService<User> dbService =
-            new PgDataService<>();
-
     private static final String TABLE_NAME = "\"User\"";
 
+    // Rows per server-side cursor round trip when streaming large pages
+    private static final int STREAM_FETCH_SIZE = 250;
+
+    // Rows per round trip for full-table exports, which favour throughput over first-byte latency
+    private static final int EXPORT_FETCH_SIZE = envInt("EXPORT_FETCH_SIZE", 1000);
+
+    // Search field -> column; each needs the matching lower(column) COLLATE "C" index
+    private static final Map<String, String> SEARCH_COLUMNS = Map.of(
+            "username", "username",
+            "email", "email"
+    );
+
+    // Row version column (e.g. xmin or updated_at) for conditional GETs; unset disables them
+    private static final String VERSION_COLUMN = versionColumn();
+
+    private static final VersionedUserRowMapper versionedMapper =
+            VERSION_COLUMN == null ? null : new VersionedUserRowMapper(VERSION_COLUMN);
+
+    // Shared by every handler instance in the container; survives across warm invocations
+    private static final ReadThroughCache<Long, UserDTO> sharedUserCache = newUserCache();
+    private static final ReadThroughCache<Long, Versioned<UserDTO>> sharedVersionedUserCache = newUserCache();
+
+    // Planner estimate of the table size, refreshed at most once per interval per container
+    private static final RefreshingValue<Long> sharedTotalEstimate = newTotalEstimate(new PgDataService<>());
+
+    static {
+        PgDataService.addWriteListener(table -> {
+            if (TABLE_NAME.equals(table)) {
+                sharedUserCache.invalidateAll();
+                sharedVersionedUserCache.invalidateAll();
+            }
+        });
+    }
+
+    private final DatabaseService<User> dbService;
+    private final DatabaseService<Versioned<User>> versionedDbService;
+    private final AsyncDatabaseService<User> asyncDbService;
+
+    private final ReadThroughCache<Long, UserDTO> userCache;
+    private final ReadThroughCache<Long, Versioned<UserDTO>> versionedUserCache;
+    private final RefreshingValue<Long> totalEstimate;
+
+    public UserServiceImpl() {
+        this.dbService = new PgDataService<>();
+        this.versionedDbService = new PgDataService<>();
+        this.asyncDbService = new AsyncPgDataService<>(dbService);
+        this.userCache = sharedUserCache;
+        this.versionedUserCache = sharedVersionedUserCache;
+        this.totalEstimate = sharedTotalEstimate;
+    }
+
+    /**
+     * Runs on the given data services with its own cache and total estimate,
+     * e.g. in-memory fakes for benchmarks; async calls are limited to
+     * {@code maxConcurrent} at a time.
+     */
+    public UserServiceImpl(DatabaseService<User> dbService,
+                           DatabaseService<Versioned<User>> versionedDbService,
+                           int maxConcurrent) {
+        this.dbService = dbService;
+        this.versionedDbService = versionedDbService;
+        this.asyncDbService = new AsyncPgDataService<>(dbService, maxConcurrent);
+        this.userCache = newUserCache();
+        this.versionedUserCache = newUserCache();
+        this.totalEstimate = newTotalEstimate(dbService);
+    }
+
+    public static CacheStats cacheStats() {
+        return sharedUserCache.stats();
+    }
+
+    public static void clearCache() {
+        sharedUserCache.invalidateAll();
+        sharedVersionedUserCache.invalidateAll();
+    }
+
+    private static <V> ReadThroughCache<Long, V> newUserCache() {
+        return new ReadThroughCache<>(
+                envInt("USER_CACHE_MAX_SIZE", 10_000),
+                envInt("USER_CACHE_TTL_SECONDS", 30) * 1000L,
+                envInt("USER_CACHE_NEGATIVE_TTL_SECONDS", 5) * 1000L
+        );
+    }
+
+    private static RefreshingValue<Long> newTotalEstimate(DatabaseService<User> dbService) {
+        return new RefreshingValue<>(
+                envInt("USER_COUNT_REFRESH_SECONDS", 60) * 1000L,
+                () -> dbService.estimateRowCount(TABLE_NAME)
+        );
+    }
+
     @Override
     public Optional<UserDTO> getUserById(Long id, LambdaLogger logger) {
 
         logger.log("Service: Fetching user with ID " + id);
 
-        User user = dbService.read(
+        // Hit rates are available from cacheStats(); snapshotting them here would cost every hit a lock
+        return userCache.get(id, key -> {
+            logger.log("Service: Cache miss, loading user with ID " + key);
+
+            return UserMapper.toDTO(dbService.read(
+                    TABLE_NAME,
+                    "id",
+                    key,
+                    UserRowMapper.INSTANCE
+            ));
+        });
+    }
+
+    @Override
+    public boolean hasRowVersions() {
+        return VERSION_COLUMN != null;
+    }
+
+    @Override
+    public Optional<Versioned<UserDTO>> getVersionedUserById(Long id, LambdaLogger logger) {
+
+        if (VERSION_COLUMN == null) {
+            throw new UnsupportedOperationException("USER_VERSION_COLUMN is not configured");
+        }
+
+        logger.log("Service: Fetching versioned user with ID " + id);
+
+        // Row and version are cached together, so the ETag always describes the cached body
+        return versionedUserCache.get(id, key -> {
+            logger.log("Service: Cache miss, loading versioned user with ID " + key);
+
+            Versioned<User> user = versionedDbService.read(
+                    TABLE_NAME,
+                    "id",
+                    key,
+                    versionedMapper
+            );
+
+            return user == null ? null : new Versioned<>(UserMapper.toDTO(user.getValue()), user.getVersion());
+        });
+    }
+
+    @Override
+    public UserBatchDTO getUsersByIds(Collection<Long> ids, LambdaLogger logger) {
+
+        // De-duplicate while keeping the caller's order
+        Set<Long> requested = new LinkedHashSet<>(ids);
+
+        logger.log("Service: Fetching " + requested.size() + " users by ID");
+
+        List<User> users = dbService.readByKeys(
                 TABLE_NAME,
                 "id",
-                id,
-                rs -> User.builder()
-                        .id(rs.getLong("id"))
-                        .username(rs.getString("username"))
-                        .email(rs.getString("email"))
-                        .build()
+                "bigint",
+                requested,
+                UserRowMapper.INSTANCE
         );
 
-        return Optional.ofNullable(user)
-                .map(UserMapper::toDTO);
+        Map<Long, User> byId = new HashMap<>(users.size() * 2);
+
+        for (User user : users) {
+            byId.put(user.getId(), user);
+        }
+
+        List<UserDTO> found = new ArrayList<>(byId.size());
+        List<Long> missing = new ArrayList<>();
+
+        for (Long id : requested) {
+            User user = byId.get(id);
+
+            if (user != null) {
+                found.add(UserMapper.toDTO(user));
+            } else {
+                missing.add(id);
+            }
+        }
+
+        return UserBatchDTO.builder()
+                .users(found)
+                .missingIds(missing)
+                .build();
     }
 
     @Override
-    public List<UserDTO> getAllUsers(
+    public Page<UserDTO> getAllUsers(
             int pageSize,
             int pageNumber,
             LambdaLogger logger
@@ -48,19 +223,257 @@ public class UserServiceImpl implements UserService {
 
         logger.log("Service: Fetching paginated users");
 
-        List<User> users = dbService.readPaginated(
+        Page<User> users = dbService.readPaginated(
                 TABLE_NAME,
                 pageSize,
                 pageNumber,
-                rs -> User.builder()
-                        .id(rs.getLong("id"))
-                        .username(rs.getString("username"))
-                        .email(rs.getString("email"))
-                        .build()
+                UserRowMapper.INSTANCE
+        );
+
+        return toDTOPage(users);
+    }
+
+    @Override
+    public Page<UserDTO> getUsersAfter(
+            Long lastId,
+            int pageSize,
+            LambdaLogger logger
+    ) {
+
+        logger.log("Service: Fetching users after ID " + lastId);
+
+        Page<User> users = dbService.readAfter(
+                TABLE_NAME,
+                "id",
+                lastId,
+                pageSize,
+                UserRowMapper.INSTANCE
         );
 
-        return users.stream()
-                .map(UserMapper::toDTO)
-                .collect(Collectors.toList());
+        return toDTOPage(users);
+    }
+
+    @Override
+    public Page<UserDTO> searchUsers(
+            String prefix,
+            String field,
+            int limit,
+            String cursor,
+            LambdaLogger logger
+    ) {
+
+        String column = searchColumn(field);
+
+        if (prefix == null || prefix.isBlank()) {
+            throw new IllegalArgumentException("Search prefix must not be empty");
+        }
+
+        if (limit < 1 || limit > MAX_SEARCH_LIMIT) {
+            throw new IllegalArgumentException("limit must be between 1 and " + MAX_SEARCH_LIMIT);
+        }
+
+        String lastValue = null;
+        Long lastId = null;
+
+        if (cursor != null) {
+            String[] position = CursorCodec.decode(cursor, 3);
+
+            if (!position[0].equals(field)) {
+                throw new InvalidCursorException();
+            }
+
+            try {
+                lastValue = position[1];
+                lastId = Long.parseLong(position[2]);
+            } catch (NumberFormatException e) {
+                throw new InvalidCursorException(e);
+            }
+        }
+
+        logger.log("Service: Searching users by " + field + " prefix '" + prefix + "' after ID " + lastId);
+
+        Page<User> users = dbService.readByPrefix(
+                TABLE_NAME,
+                column,
+                prefix,
+                "id",
+                lastValue,
+                lastId,
+                limit,
+                UserRowMapper.INSTANCE
+        );
+
+        return toDTOPage(users);
+    }
+
+    @Override
+    public String searchCursor(String field, UserDTO last) {
+        String value = searchColumn(field).equals("email") ? last.getEmail() : last.getUsername();
+        return CursorCodec.encode(field, value, Long.toString(last.getId()));
+    }
+
+    /**
+     * Maps a search field to its column; only columns with a prefix index (see db/migrations) are searchable.
+     */
+    private static String searchColumn(String field) {
+        String column = SEARCH_COLUMNS.get(field);
+
+        if (column == null) {
+            throw new IllegalArgumentException("field must be one of " + SEARCH_COLUMNS.keySet());
+        }
+
+        return column;
+    }
+
+    @Override
+    public Long getTotalUsers(boolean exact, LambdaLogger logger) {
+
+        if (exact) {
+            logger.log("Service: Counting users exactly");
+
+            long total = dbService.countRows(TABLE_NAME);
+            totalEstimate.set(total);
+            return total;
+        }
+
+        try {
+            long estimate = totalEstimate.get();
+            return estimate < 0 ? null : estimate;
+        } catch (RuntimeException e) {
+            // A missing total must not fail the page it decorates
+            logger.log("WARN: Service: User count estimate unavailable: " + e.getMessage());
+            return null;
+        }
+    }
+
+    @Override
+    public CompletableFuture<Optional<UserDTO>> getUserByIdAsync(Long id, LambdaLogger logger) {
+        // Goes through the read-through cache, so run the whole lookup off-thread
+        return asyncDbService.supplyAsync(() -> getUserById(id, logger));
+    }
+
+    @Override
+    public CompletableFuture<UserBatchDTO> getUsersByIdsAsync(Collection<Long> ids, LambdaLogger logger) {
+        return asyncDbService.supplyAsync(() -> getUsersByIds(ids, logger));
+    }
+
+    @Override
+    public CompletableFuture<Page<UserDTO>> getUsersAfterAsync(
+            Long lastId,
+            int pageSize,
+            LambdaLogger logger
+    ) {
+
+        logger.log("Service: Fetching users after ID " + lastId + " (async)");
+
+        return asyncDbService.readAfterAsync(
+                        TABLE_NAME,
+                        "id",
+                        lastId,
+                        pageSize,
+                        UserRowMapper.INSTANCE
+                )
+                .thenApply(UserServiceImpl::toDTOPage);
+    }
+
+    @Override
+    public CompletableFuture<Long> getTotalUsersAsync(boolean exact, LambdaLogger logger) {
+        return asyncDbService.supplyAsync(() -> getTotalUsers(exact, logger));
+    }
+
+    @Override
+    public void streamUsersAfter(
+            Long lastId,
+            int pageSize,
+            DatabaseService.RowCallback<UserDTO> callback,
+            LambdaLogger logger
+    ) {
+
+        logger.log("Service: Streaming users after ID " + lastId);
+
+        dbService.streamAfter(
+                TABLE_NAME,
+                "id",
+                lastId,
+                pageSize,
+                STREAM_FETCH_SIZE,
+                UserRowMapper.INSTANCE,
+                user -> callback.accept(UserMapper.toDTO(user))
+        );
+    }
+
+    @Override
+    public void exportUsers(
+            Long lastId,
+            int limit,
+            DatabaseService.RowCallback<UserDTO> callback,
+            LambdaLogger logger
+    ) {
+
+        logger.log("Service: Exporting users after ID " + lastId + (limit > 0 ? ", limit " + limit : ""));
+
+        dbService.streamAfter(
+                TABLE_NAME,
+                "id",
+                lastId,
+                limit,
+                EXPORT_FETCH_SIZE,
+                UserRowMapper.INSTANCE,
+                user -> callback.accept(UserMapper.toDTO(user))
+        );
+    }
+
+    @Override
+    public long upsertUsers(Collection<User> users, LambdaLogger logger) {
+
+        if (users.isEmpty()) {
+            return 0;
+        }
+
+        List<Map<String, Object>> rows = new ArrayList<>(users.size());
+
+        for (User user : users) {
+            Map<String, Object> row = new HashMap<>(4);
+            row.put("id", user.getId());
+            row.put("username", user.getUsername());
+            row.put("email", user.getEmail());
+            rows.add(row);
+        }
+
+        logger.log("Service: Upserting " + rows.size() + " users");
+
+        long[] written = new long[1];
+
+        dbService.withTransaction(conn ->
+                written[0] = dbService.upsert(conn, TABLE_NAME, "id", rows).getRows());
+
+        return written[0];
+    }
+
+    private static Page<UserDTO> toDTOPage(Page<User> users) {
+        return new Page<>(
+                users.getItems().stream()
+                        .map(UserMapper::toDTO)
+                        .collect(Collectors.toList()),
+                users.isHasMore()
+        );
+    }
+
+    private static String versionColumn() {
+        String column = System.getenv("USER_VERSION_COLUMN");
+
+        if (column == null || column.isBlank()) {
+            return null;
+        }
+        if (!column.trim().matches("[A-Za-z_][A-Za-z0-9_]*")) {
+            throw new IllegalStateException("Invalid USER_VERSION_COLUMN: " + column);
+        }
+
+        return column.trim();
+    }
+
+    private static int envInt(String name, int defaultValue) {
+        String value = System.getenv(name);
+        return value == null || value.isBlank() ? defaultValue : Integer.parseInt(value.trim());
     }
-}
\ No newline at end of file
+}
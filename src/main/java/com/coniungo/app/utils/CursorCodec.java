@@ -0,0 +1,92 @@
+package com.coniungo.app.utils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Encodes keyset pagination positions as opaque, URL-safe cursor tokens.
+ * <p>
+ * Clients must treat the token as a black box and hand it back unchanged;
+ * the layout is versioned so it can evolve without breaking them.
+ * <p>
+ * Each part is Base64-encoded on its own, so values may contain any
+ * character, the separator included. Version 1 tokens, which held the
+ * parts verbatim, are still accepted.
+ */
+public final class CursorCodec {
+
+    private static final String VERSION = "v2";
+    private static final String LEGACY_VERSION = "v1";
+    private static final char SEPARATOR = '\n';
+
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    private CursorCodec() {
+    }
+
+    public static String encode(String... parts) {
+        StringBuilder raw = new StringBuilder(VERSION);
+
+        for (String part : parts) {
+            raw.append(SEPARATOR).append(ENCODER.encodeToString(part.getBytes(StandardCharsets.UTF_8)));
+        }
+
+        return ENCODER.encodeToString(raw.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @throws InvalidCursorException if the token is malformed or was not produced by {@link #encode}.
+     */
+    public static String[] decode(String cursor, int expectedParts) {
+        String raw;
+
+        try {
+            raw = new String(DECODER.decode(cursor), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidCursorException(e);
+        }
+
+        String[] tokens = raw.split(String.valueOf(SEPARATOR), -1);
+
+        if (tokens.length != expectedParts + 1) {
+            throw new InvalidCursorException();
+        }
+
+        String[] parts = new String[expectedParts];
+
+        if (LEGACY_VERSION.equals(tokens[0])) {
+            System.arraycopy(tokens, 1, parts, 0, expectedParts);
+            return parts;
+        }
+
+        if (!VERSION.equals(tokens[0])) {
+            throw new InvalidCursorException();
+        }
+
+        try {
+            for (int i = 0; i < expectedParts; i++) {
+                parts[i] = new String(DECODER.decode(tokens[i + 1]), StandardCharsets.UTF_8);
+            }
+        } catch (IllegalArgumentException e) {
+            throw new InvalidCursorException(e);
+        }
+
+        return parts;
+    }
+
+    public static String encodeId(long id) {
+        return encode(Long.toString(id));
+    }
+
+    /**
+     * @throws InvalidCursorException if the token does not hold an ID from {@link #encodeId}.
+     */
+    public static long decodeId(String cursor) {
+        try {
+            return Long.parseLong(decode(cursor, 1)[0]);
+        } catch (NumberFormatException e) {
+            throw new InvalidCursorException(e);
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.coniungo.app.utils;
+
+/**
+ * Thrown when a pagination cursor was not produced by {@link CursorCodec},
+ * e.g. because the client altered or truncated it.
+ */
+public class InvalidCursorException extends IllegalArgumentException {
+
+    private static final long serialVersionUID = 1L;
+
+    public InvalidCursorException() {
+        super("Invalid cursor");
+    }
+
+    public InvalidCursorException(Throwable cause) {
+        super("Invalid cursor", cause);
+    }
+}
@@ -1,29 +0,0 @@
-package com.coniungo.app.utils;
-
-import com.google.gson.TypeAdapter;
-import com.google.gson.stream.JsonReader;
-import com.google.gson.stream.JsonWriter;
-
-import java.io.IOException;
-import java.time.OffsetDateTime;
-import java.time.format.DateTimeFormatter;
-
-public class OffsetDateTimeAdapter extends TypeAdapter<OffsetDateTime> {
-
-    private static final DateTimeFormatter FORMATTER = DateTimeFormatter.ISO_OFFSET_DATE_TIME;
-
-    @Override
-    public void write(JsonWriter out, OffsetDateTime value) throws IOException {
-        if (value == null) {
-            out.nullValue();
-        } else {
-            out.value(value.format(FORMATTER));
-        }
-    }
-
-    @Override
-    public OffsetDateTime read(JsonReader in) throws IOException {
-        String dateTimeString = in.nextString();
-        return OffsetDateTime.parse(dateTimeString, FORMATTER);
-    }
-}
\ No newline at end of file
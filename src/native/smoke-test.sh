@@ -0,0 +1,80 @@
+#!/usr/bin/env bash
+# Runs the native bootstrap under the Lambda runtime interface emulator and
+# checks a few invocations end to end (event binding, handler, response).
+#
+#   mvn -Pnative-lambda -DskipTests package && src/native/smoke-test.sh
+#
+# Needs aws-lambda-rie on PATH (or AWS_LAMBDA_RIE pointing at it). Without
+# DB_HOST only the paths that never reach the database are exercised.
+set -euo pipefail
+
+cd "$(dirname "$0")/../.."
+
+RIE="${AWS_LAMBDA_RIE:-aws-lambda-rie}"
+BINARY="target/aws-java-lambda"
+PORT="${SMOKE_PORT:-9080}"
+API_PORT="${SMOKE_API_PORT:-9001}"
+
+if ! command -v "$RIE" >/dev/null 2>&1; then
+    echo "WARN: $RIE not found, install aws-lambda-runtime-interface-emulator or set AWS_LAMBDA_RIE" >&2
+    exit 2
+fi
+
+if [ ! -x "$BINARY" ]; then
+    echo "WARN: $BINARY missing, build it with: mvn -Pnative-lambda -DskipTests package" >&2
+    exit 2
+fi
+
+WORK="$(mktemp -d)"
+trap 'rm -rf "$WORK"' EXIT
+cp src/native/bootstrap "$BINARY" "$WORK/"
+
+FAILED=0
+
+# invoke <handler class> <expected status> <event json>
+invoke() {
+    local handler="$1" expected="$2" event="$3"
+
+    _HANDLER="com.coniungo.app.handlers.$handler::handleRequest" LAMBDA_TASK_ROOT="$WORK" \
+        "$RIE" --runtime-interface-emulator-address "127.0.0.1:$PORT" \
+               --runtime-api-address "127.0.0.1:$API_PORT" \
+               "$WORK/bootstrap" >"$WORK/rie.log" 2>&1 &
+    local rie_pid=$!
+
+    local response=""
+    for _ in $(seq 1 50); do
+        if response="$(curl -sf -XPOST "http://127.0.0.1:$PORT/2015-03-31/functions/function/invocations" -d "$event")"; then
+            break
+        fi
+        sleep 0.1
+    done
+
+    kill "$rie_pid" 2>/dev/null || true
+    wait "$rie_pid" 2>/dev/null || true
+
+    if echo "$response" | grep -Eq "\"statusCode\": ?$expected"; then
+        echo "SUCCESS: $handler -> $expected"
+    else
+        echo "FAILED: $handler expected $expected, got: ${response:-<no response>}"
+        sed 's/^/    /' "$WORK/rie.log"
+        FAILED=1
+    fi
+}
+
+invoke GetUserHandler 400 \
+    '{"httpMethod":"GET","path":"/api/v1/user","queryStringParameters":{"id":"abc"}}'
+
+invoke GetUsersByIdsHandler 400 \
+    '{"httpMethod":"POST","path":"/api/v1/users/batch","body":"{\"ids\":\"nope\"}"}'
+
+invoke RouterHandler 404 \
+    '{"httpMethod":"GET","path":"/api/v1/nothing-here"}'
+
+if [ -n "${DB_HOST:-}" ]; then
+    invoke GetAllUsersHandler 200 \
+        '{"httpMethod":"GET","path":"/api/v1/users","queryStringParameters":{"limit":"5"}}'
+    invoke RouterHandler 200 \
+        '{"httpMethod":"GET","path":"/api/v1/users","queryStringParameters":{"limit":"5"}}'
+fi
+
+exit "$FAILED"
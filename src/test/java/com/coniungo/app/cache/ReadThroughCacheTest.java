@@ -0,0 +1,200 @@
+package com.coniungo.app.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ReadThroughCacheTest {
+
+    private final AtomicInteger loads = new AtomicInteger();
+
+    private String load(Integer key) {
+        loads.incrementAndGet();
+        return "v" + key;
+    }
+
+    @Test
+    void cachesValuesAndMisses() {
+        ReadThroughCache<Integer, String> cache = new ReadThroughCache<>(10, 60_000, 60_000);
+
+        assertEquals(Optional.of("v1"), cache.get(1, this::load));
+        assertEquals(Optional.of("v1"), cache.get(1, this::load));
+
+        assertEquals(Optional.empty(), cache.get(2, key -> {
+            loads.incrementAndGet();
+            return null;
+        }));
+        assertEquals(Optional.empty(), cache.get(2, this::load));
+
+        assertEquals(2, loads.get());
+
+        CacheStats stats = cache.stats();
+        assertEquals(2, stats.getHits());
+        assertEquals(2, stats.getMisses());
+        assertEquals(2, stats.getSize());
+    }
+
+    @Test
+    void evictsTheLeastRecentlyUsedEntry() {
+        ReadThroughCache<Integer, String> cache = new ReadThroughCache<>(2, 60_000, 60_000);
+
+        cache.get(1, this::load);
+        cache.get(2, this::load);
+        cache.get(1, this::load); // 2 is now the least recently used
+        cache.get(3, this::load);
+
+        assertEquals(3, loads.get());
+        assertEquals(1, cache.stats().getEvictions());
+
+        cache.get(1, this::load);
+        assertEquals(3, loads.get());
+
+        cache.get(2, this::load);
+        assertEquals(4, loads.get());
+    }
+
+    @Test
+    void expiresEntriesAfterTheirTtl() throws Exception {
+        ReadThroughCache<Integer, String> cache = new ReadThroughCache<>(10, 60_000, 1);
+
+        cache.get(1, key -> null);
+        Thread.sleep(5);
+
+        assertEquals(Optional.of("v1"), cache.get(1, this::load));
+    }
+
+    @Test
+    void invalidateForcesAReload() {
+        ReadThroughCache<Integer, String> cache = new ReadThroughCache<>(10, 60_000, 60_000);
+
+        cache.get(1, this::load);
+        cache.get(2, this::load);
+
+        cache.invalidate(1);
+        cache.get(1, this::load);
+        cache.get(2, this::load);
+        assertEquals(3, loads.get());
+
+        cache.invalidateAll();
+        cache.get(2, this::load);
+        assertEquals(4, loads.get());
+    }
+
+    @Test
+    void concurrentMissesShareOneLoad() throws Exception {
+        ReadThroughCache<Integer, String> cache = new ReadThroughCache<>(10, 60_000, 60_000);
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+
+        try {
+            Future<Optional<String>> first = executor.submit(() -> cache.get(1, key -> {
+                loading.countDown();
+                await(release);
+                return load(key);
+            }));
+
+            assertTrue(loading.await(5, TimeUnit.SECONDS));
+
+            Future<Optional<String>> second = executor.submit(() -> cache.get(1, this::load));
+            Future<Optional<String>> third = executor.submit(() -> cache.get(1, this::load));
+
+            // Let the waiters reach the in-flight load before it completes
+            Thread.sleep(50);
+            release.countDown();
+
+            assertEquals(Optional.of("v1"), first.get(5, TimeUnit.SECONDS));
+            assertEquals(Optional.of("v1"), second.get(5, TimeUnit.SECONDS));
+            assertEquals(Optional.of("v1"), third.get(5, TimeUnit.SECONDS));
+            assertEquals(1, loads.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void aLoadInFlightDuringInvalidationIsNotCached() throws Exception {
+        ReadThroughCache<Integer, String> cache = new ReadThroughCache<>(10, 60_000, 60_000);
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+
+        try {
+            Future<Optional<String>> stale = executor.submit(() -> cache.get(1, key -> {
+                loading.countDown();
+                await(release);
+                return "stale";
+            }));
+
+            assertTrue(loading.await(5, TimeUnit.SECONDS));
+            cache.invalidate(1);
+
+            // Arrives after the write, so must not join the load that began before it
+            assertEquals(Optional.of("v1"), cache.get(1, this::load));
+
+            release.countDown();
+            assertEquals(Optional.of("stale"), stale.get(5, TimeUnit.SECONDS));
+
+            assertEquals(Optional.of("v1"), cache.get(1, this::load));
+            assertEquals(1, loads.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void loaderErrorsReachEveryWaiter() throws Exception {
+        ReadThroughCache<Integer, String> cache = new ReadThroughCache<>(10, 60_000, 60_000);
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+
+        try {
+            Future<Optional<String>> failing = executor.submit(() -> cache.get(1, key -> {
+                loading.countDown();
+                await(release);
+                throw new AssertionError("loader failed");
+            }));
+
+            assertTrue(loading.await(5, TimeUnit.SECONDS));
+
+            Future<Optional<String>> waiter = executor.submit(() -> cache.get(1, this::load));
+
+            Thread.sleep(50);
+            release.countDown();
+
+            Exception first = assertThrows(Exception.class, () -> failing.get(5, TimeUnit.SECONDS));
+            Exception second = assertThrows(Exception.class, () -> waiter.get(5, TimeUnit.SECONDS));
+
+            assertInstanceOf(AssertionError.class, first.getCause());
+            assertInstanceOf(AssertionError.class, second.getCause());
+
+            // Failed loads are not cached
+            assertEquals(Optional.of("v1"), cache.get(1, this::load));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package com.coniungo.app.handlers;
+
+import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyRequestEvent;
+import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyResponseEvent;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ConditionalGetTest {
+
+    // Above COMPRESSION_MIN_BYTES, so gzip clients get an encoded body
+    private static final String LARGE_BODY = "{\"data\":\"" + "x".repeat(2048) + "\"}";
+
+    @Test
+    void matchesWithWeakComparison() {
+        assertTrue(ConditionalGet.matches("\"a\"", "\"a\""));
+        assertTrue(ConditionalGet.matches("W/\"a\"", "\"a\""));
+        assertTrue(ConditionalGet.matches("\"a\"", "W/\"a\""));
+        assertTrue(ConditionalGet.matches("\"b\", \"a\"", "\"a\""));
+        assertTrue(ConditionalGet.matches("*", "\"a\""));
+
+        assertFalse(ConditionalGet.matches("\"b\"", "\"a\""));
+        assertFalse(ConditionalGet.matches("a", "\"a\""));
+        assertFalse(ConditionalGet.matches(null, "\"a\""));
+    }
+
+    @Test
+    void bodyTagsFollowTheContent() {
+        String etag = ConditionalGet.etagForBody("{\"id\":1}");
+
+        assertEquals(etag, ConditionalGet.etagForBody("{\"id\":1}"));
+        assertNotEquals(etag, ConditionalGet.etagForBody("{\"id\":2}"));
+        assertTrue(etag.startsWith("\"") && etag.endsWith("\""), etag);
+    }
+
+    @Test
+    void tagsStrongETagsWithTheContentCoding() {
+        assertEquals("\"abc-gzip\"", ConditionalGet.forCoding("\"abc\"", "gzip"));
+        assertEquals("\"abc\"", ConditionalGet.forCoding("\"abc\"", null));
+        assertEquals("W/\"abc\"", ConditionalGet.forCoding("W/\"abc\"", "gzip"));
+    }
+
+    @Test
+    void setsTheETagOnSuccessfulGets() {
+        APIGatewayProxyResponseEvent response = ConditionalGet.apply(request("GET", Map.of()), ok("{\"id\":1}"));
+
+        assertEquals(200, response.getStatusCode());
+        assertEquals(ConditionalGet.etagForBody("{\"id\":1}"), response.getHeaders().get("ETag"));
+    }
+
+    @Test
+    void answersNotModifiedWhenTheTagMatches() {
+        String etag = ConditionalGet.etagForBody("{\"id\":1}");
+
+        APIGatewayProxyResponseEvent response = ConditionalGet.apply(
+                request("GET", Map.of("if-none-match", etag)), ok("{\"id\":1}"));
+
+        assertEquals(304, response.getStatusCode());
+        assertNull(response.getBody());
+        assertEquals(etag, response.getHeaders().get("ETag"));
+    }
+
+    @Test
+    void distinguishesCompressedAndIdentityRepresentations() {
+        String identity = ConditionalGet.apply(request("GET", Map.of()), ok(LARGE_BODY)).getHeaders().get("ETag");
+        String gzip = ConditionalGet.apply(request("GET", Map.of("Accept-Encoding", "gzip")), ok(LARGE_BODY))
+                .getHeaders().get("ETag");
+
+        assertEquals(ConditionalGet.forCoding(identity, "gzip"), gzip);
+
+        // The identity tag does not validate the gzip body, nor the other way round
+        assertEquals(200, ConditionalGet.apply(
+                request("GET", Map.of("Accept-Encoding", "gzip", "If-None-Match", identity)), ok(LARGE_BODY))
+                .getStatusCode());
+        assertEquals(200, ConditionalGet.apply(
+                request("GET", Map.of("If-None-Match", gzip)), ok(LARGE_BODY)).getStatusCode());
+
+        APIGatewayProxyResponseEvent notModified = ConditionalGet.apply(
+                request("GET", Map.of("Accept-Encoding", "gzip", "If-None-Match", gzip)), ok(LARGE_BODY));
+
+        assertEquals(304, notModified.getStatusCode());
+        assertEquals(gzip, notModified.getHeaders().get("ETag"));
+        assertEquals("Accept-Encoding", notModified.getHeaders().get("Vary"));
+    }
+
+    @Test
+    void keepsWeakHandlerTagsForEveryCoding() {
+        APIGatewayProxyResponseEvent versioned = ok(LARGE_BODY);
+        versioned.setHeaders(Map.of("ETag", "W/\"u1-7-3\""));
+
+        APIGatewayProxyResponseEvent response = ConditionalGet.apply(
+                request("GET", Map.of("Accept-Encoding", "gzip", "If-None-Match", "W/\"u1-7-3\"")), versioned);
+
+        assertEquals(304, response.getStatusCode());
+        assertEquals("W/\"u1-7-3\"", response.getHeaders().get("ETag"));
+    }
+
+    @Test
+    void leavesOtherResponsesAlone() {
+        APIGatewayProxyResponseEvent post = ok("{\"id\":1}");
+        assertSame(post, ConditionalGet.apply(request("POST", Map.of("If-None-Match", "*")), post));
+        assertNull(post.getHeaders());
+
+        APIGatewayProxyResponseEvent notFound = ok("{}");
+        notFound.setStatusCode(404);
+        assertEquals(404, ConditionalGet.apply(request("GET", Map.of("If-None-Match", "*")), notFound).getStatusCode());
+        assertNull(notFound.getHeaders());
+    }
+
+    private static APIGatewayProxyRequestEvent request(String method, Map<String, String> headers) {
+        APIGatewayProxyRequestEvent request = new APIGatewayProxyRequestEvent();
+        request.setHttpMethod(method);
+        request.setHeaders(new HashMap<>(headers));
+        return request;
+    }
+
+    private static APIGatewayProxyResponseEvent ok(String body) {
+        APIGatewayProxyResponseEvent response = new APIGatewayProxyResponseEvent();
+        response.setStatusCode(200);
+        response.setBody(body);
+        return response;
+    }
+}
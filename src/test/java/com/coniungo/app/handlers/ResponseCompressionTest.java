@@ -0,0 +1,139 @@
+package com.coniungo.app.handlers;
+
+import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyRequestEvent;
+import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyResponseEvent;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ResponseCompressionTest {
+
+    // Above COMPRESSION_MIN_BYTES
+    private static final String LARGE_BODY = "{\"data\":\"" + "ab".repeat(2048) + "\"}";
+
+    @Test
+    void prefersGzip() {
+        assertEquals("gzip", ResponseCompression.negotiate("gzip, deflate, br"));
+        assertEquals("gzip", ResponseCompression.negotiate("deflate, gzip"));
+        assertEquals("gzip", ResponseCompression.negotiate("x-gzip"));
+        assertEquals("gzip", ResponseCompression.negotiate("GZIP"));
+    }
+
+    @Test
+    void honoursQualityValues() {
+        assertEquals("deflate", ResponseCompression.negotiate("gzip;q=0.5, deflate"));
+        assertEquals("deflate", ResponseCompression.negotiate("gzip;q=0, deflate"));
+        assertEquals("gzip", ResponseCompression.negotiate("gzip;q=0.8, deflate;q=0.8"));
+        assertNull(ResponseCompression.negotiate("gzip;q=0, deflate;q=0"));
+        assertNull(ResponseCompression.negotiate("gzip;q=abc"));
+    }
+
+    @Test
+    void appliesTheWildcardToUnlistedCodings() {
+        assertEquals("gzip", ResponseCompression.negotiate("*"));
+        assertEquals("deflate", ResponseCompression.negotiate("gzip;q=0, *"));
+        assertNull(ResponseCompression.negotiate("*;q=0"));
+        assertEquals("gzip", ResponseCompression.negotiate("gzip, *;q=0"));
+    }
+
+    @Test
+    void sendsIdentityOtherwise() {
+        assertNull(ResponseCompression.negotiate(null));
+        assertNull(ResponseCompression.negotiate(""));
+        assertNull(ResponseCompression.negotiate("identity"));
+        assertNull(ResponseCompression.negotiate("br, zstd"));
+    }
+
+    @Test
+    void compressesLargeBodiesWithGzip() throws Exception {
+        APIGatewayProxyResponseEvent response = ResponseCompression.apply(
+                request("gzip"), ok(LARGE_BODY, Map.of("Content-Type", "application/json")));
+
+        assertTrue(response.getIsBase64Encoded());
+        assertEquals("gzip", response.getHeaders().get("Content-Encoding"));
+        assertEquals("Accept-Encoding", response.getHeaders().get("Vary"));
+        assertEquals("application/json", response.getHeaders().get("Content-Type"));
+
+        byte[] compressed = Base64.getDecoder().decode(response.getBody());
+        assertTrue(compressed.length < LARGE_BODY.length());
+
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+            assertEquals(LARGE_BODY, new String(in.readAllBytes(), StandardCharsets.UTF_8));
+        }
+    }
+
+    @Test
+    void compressesLargeBodiesWithDeflate() throws Exception {
+        // Twice, so the second response reuses the pooled codec
+        for (int i = 0; i < 2; i++) {
+            APIGatewayProxyResponseEvent response = ResponseCompression.apply(request("deflate"), ok(LARGE_BODY, null));
+
+            assertEquals("deflate", response.getHeaders().get("Content-Encoding"));
+
+            byte[] compressed = Base64.getDecoder().decode(response.getBody());
+
+            try (InflaterInputStream in = new InflaterInputStream(new ByteArrayInputStream(compressed))) {
+                assertEquals(LARGE_BODY, new String(in.readAllBytes(), StandardCharsets.UTF_8));
+            }
+        }
+    }
+
+    @Test
+    void leavesSmallOrAlreadyEncodedBodiesAlone() {
+        APIGatewayProxyResponseEvent small = ResponseCompression.apply(request("gzip"), ok("{\"id\":1}", null));
+
+        assertEquals("{\"id\":1}", small.getBody());
+        assertNull(small.getHeaders());
+        assertNull(ResponseCompression.encodingFor(request("gzip"), small));
+
+        APIGatewayProxyResponseEvent binary = ok(LARGE_BODY, null);
+        binary.setIsBase64Encoded(true);
+
+        assertEquals(LARGE_BODY, ResponseCompression.apply(request("gzip"), binary).getBody());
+
+        APIGatewayProxyResponseEvent identity = ResponseCompression.apply(request(null), ok(LARGE_BODY, null));
+        assertFalse(Boolean.TRUE.equals(identity.getIsBase64Encoded()));
+        assertEquals(LARGE_BODY, identity.getBody());
+    }
+
+    @Test
+    void readsHeadersCaseInsensitively() {
+        APIGatewayProxyRequestEvent request = new APIGatewayProxyRequestEvent();
+        request.setHeaders(Map.of("accept-encoding", "gzip"));
+
+        assertEquals("gzip", ResponseCompression.header(request, "Accept-Encoding"));
+        assertEquals("gzip", ResponseCompression.encodingFor(request, ok(LARGE_BODY, null)));
+        assertNull(ResponseCompression.header(new APIGatewayProxyRequestEvent(), "Accept-Encoding"));
+    }
+
+    private static APIGatewayProxyRequestEvent request(String acceptEncoding) {
+        APIGatewayProxyRequestEvent request = new APIGatewayProxyRequestEvent();
+        Map<String, String> headers = new HashMap<>();
+
+        if (acceptEncoding != null) {
+            headers.put("Accept-Encoding", acceptEncoding);
+        }
+
+        request.setHeaders(headers);
+        return request;
+    }
+
+    private static APIGatewayProxyResponseEvent ok(String body, Map<String, String> headers) {
+        APIGatewayProxyResponseEvent response = new APIGatewayProxyResponseEvent();
+        response.setStatusCode(200);
+        response.setBody(body);
+        response.setHeaders(headers);
+        return response;
+    }
+}
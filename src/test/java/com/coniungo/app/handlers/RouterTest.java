@@ -0,0 +1,85 @@
+package com.coniungo.app.handlers;
+
+import com.amazonaws.services.lambda.runtime.RequestHandler;
+import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyRequestEvent;
+import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyResponseEvent;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RouterTest {
+
+    private final RequestHandler<APIGatewayProxyRequestEvent, APIGatewayProxyResponseEvent> list = handler();
+    private final RequestHandler<APIGatewayProxyRequestEvent, APIGatewayProxyResponseEvent> byId = handler();
+    private final RequestHandler<APIGatewayProxyRequestEvent, APIGatewayProxyResponseEvent> batch = handler();
+    private final RequestHandler<APIGatewayProxyRequestEvent, APIGatewayProxyResponseEvent> create = handler();
+
+    // byId is added first, so literal precedence cannot come from insertion order
+    private final Router router = new Router()
+            .add("GET", "/api/v1/users/{id}", byId)
+            .add("GET", "/api/v1/users", list)
+            .add("GET", "/api/v1/users/batch", batch)
+            .add("POST", "/api/v1/users", create);
+
+    @Test
+    void matchesLiteralRoutes() {
+        Router.Match match = router.match("GET", "/api/v1/users");
+
+        assertSame(list, match.target());
+        assertTrue(match.pathParameters().isEmpty());
+    }
+
+    @Test
+    void extractsPathParameters() {
+        Router.Match match = router.match("GET", "/api/v1/users/42");
+
+        assertSame(byId, match.target());
+        assertEquals(Map.of("id", "42"), match.pathParameters());
+    }
+
+    @Test
+    void prefersLiteralSegmentsOverParameters() {
+        assertSame(batch, router.match("GET", "/api/v1/users/batch").target());
+        assertSame(byId, router.match("GET", "/api/v1/users/batches").target());
+    }
+
+    @Test
+    void matchesMethodsCaseInsensitively() {
+        assertSame(create, router.match("post", "/api/v1/users").target());
+    }
+
+    @Test
+    void ignoresEmptySegments() {
+        assertSame(list, router.match("GET", "/api/v1/users/").target());
+        assertSame(byId, router.match("GET", "//api/v1//users/7").target());
+    }
+
+    @Test
+    void tellsAnUnknownPathFromAnUnsupportedMethod() {
+        // 405: the path exists for another method
+        assertNull(router.match("DELETE", "/api/v1/users/42"));
+        assertTrue(router.hasPath("/api/v1/users/42"));
+
+        // 404: no method has the path
+        assertNull(router.match("GET", "/api/v1/users/42/orders"));
+        assertFalse(router.hasPath("/api/v1/users/42/orders"));
+        assertFalse(router.hasPath("/api/v2/users"));
+    }
+
+    @Test
+    void rejectsMissingMethodOrPath() {
+        assertNull(router.match(null, "/api/v1/users"));
+        assertNull(router.match("GET", null));
+        assertFalse(router.hasPath(null));
+    }
+
+    private static RequestHandler<APIGatewayProxyRequestEvent, APIGatewayProxyResponseEvent> handler() {
+        return (input, context) -> new APIGatewayProxyResponseEvent();
+    }
+}
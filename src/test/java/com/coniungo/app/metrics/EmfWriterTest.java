@@ -0,0 +1,149 @@
+package com.coniungo.app.metrics;
+
+import com.amazonaws.services.lambda.runtime.LambdaLogger;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class EmfWriterTest {
+
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final CapturingLogger logger = new CapturingLogger();
+
+    @AfterEach
+    void tearDown() {
+        InvocationMetrics.end();
+    }
+
+    @Test
+    void emitsOneEmfLineWithNamespaceDimensionsAndUnits() throws Exception {
+        InvocationMetrics metrics = InvocationMetrics.begin(false);
+        metrics.record(Phase.QUERY, 1_500_000);
+
+        long before = System.currentTimeMillis();
+        EmfWriter.emit(logger, metrics, "GetUserHandler", "req-1", 200, "jvm", false);
+
+        assertEquals(1, logger.lines.size());
+        JsonNode line = objectMapper.readTree(logger.lines.get(0));
+
+        JsonNode aws = line.get("_aws");
+        assertTrue(aws.get("Timestamp").asLong() >= before);
+
+        JsonNode directives = aws.get("CloudWatchMetrics");
+        assertEquals(1, directives.size());
+
+        JsonNode directive = directives.get(0);
+        assertEquals(System.getenv().getOrDefault("METRICS_NAMESPACE", "Coniungo/UserApi"),
+                directive.get("Namespace").asText());
+        assertEquals("[[\"Function\"]]", directive.get("Dimensions").toString());
+
+        Map<String, String> units = new HashMap<>();
+        for (JsonNode definition : directive.get("Metrics")) {
+            units.put(definition.get("Name").asText(), definition.get("Unit").asText());
+        }
+
+        Map<String, String> expected = new HashMap<>();
+        for (Phase phase : Phase.values()) {
+            expected.put(phase.metricName(), "Milliseconds");
+        }
+        expected.put("RowsRead", "Count");
+        expected.put("RowsWritten", "Count");
+        expected.put("PoolAcquires", "Count");
+        expected.put("ColdStart", "Count");
+
+        assertEquals(expected, units);
+
+        // CloudWatch drops a declared metric without a top-level value, and a dimension without one
+        for (String name : units.keySet()) {
+            assertTrue(line.get(name).isNumber(), name + " has no numeric value");
+        }
+        assertEquals("GetUserHandler", line.get("Function").asText());
+    }
+
+    @Test
+    void reportsRecordedValuesAndProperties() throws Exception {
+        InvocationMetrics metrics = InvocationMetrics.begin(true);
+        metrics.record(Phase.POOL_ACQUIRE, 250_000);
+        metrics.record(Phase.POOL_ACQUIRE, 125_000);
+        metrics.record(Phase.QUERY, 1_234_567);
+        metrics.record(Phase.TOTAL, 5_000_000);
+        metrics.addRowsRead(50);
+        metrics.addRowsWritten(3);
+
+        EmfWriter.emit(logger, metrics, "GetAllUsersHandler", "req-2", 404, "restore", true);
+
+        JsonNode line = objectMapper.readTree(logger.lines.get(0));
+
+        // Milliseconds, truncated to whole microseconds
+        assertEquals(0.375, line.get("PoolAcquireTime").asDouble());
+        assertEquals(1.234, line.get("QueryTime").asDouble());
+        assertEquals(5.0, line.get("TotalTime").asDouble());
+        assertEquals(0.0, line.get("SerializationTime").asDouble());
+
+        assertEquals(2, line.get("PoolAcquires").asLong());
+        assertEquals(50, line.get("RowsRead").asLong());
+        assertEquals(3, line.get("RowsWritten").asLong());
+        assertEquals(1, line.get("ColdStart").asLong());
+
+        assertEquals("req-2", line.get("RequestId").asText());
+        assertEquals(404, line.get("StatusCode").asInt());
+        assertEquals("restore", line.get("InitType").asText());
+        assertTrue(line.get("Primed").asBoolean());
+    }
+
+    @Test
+    void eachInvocationStartsFromZero() throws Exception {
+        InvocationMetrics first = InvocationMetrics.begin(true);
+        first.record(Phase.QUERY, 9_000_000);
+        first.addRowsRead(7);
+        InvocationMetrics.end();
+
+        InvocationMetrics second = InvocationMetrics.begin(false);
+        EmfWriter.emit(logger, second, "GetUserHandler", "req-3", 200, "jvm", false);
+
+        JsonNode line = objectMapper.readTree(logger.lines.get(0));
+
+        assertEquals(0.0, line.get("QueryTime").asDouble());
+        assertEquals(0, line.get("RowsRead").asLong());
+        assertEquals(0, line.get("ColdStart").asLong());
+    }
+
+    @Test
+    void detachedMetricsEmitNothing() {
+        InvocationMetrics detached = InvocationMetrics.current();
+
+        assertFalse(detached.isRecording());
+
+        detached.record(Phase.QUERY, 1_000_000);
+        EmfWriter.emit(logger, detached, "GetUserHandler", "req-4", 200, "jvm", false);
+
+        assertTrue(logger.lines.isEmpty());
+    }
+
+    private static final class CapturingLogger implements LambdaLogger {
+
+        final List<String> lines = new ArrayList<>();
+
+        @Override
+        public void log(String message) {
+            lines.add(message);
+        }
+
+        @Override
+        public void log(byte[] message) {
+            lines.add(new String(message, StandardCharsets.UTF_8));
+        }
+    }
+}
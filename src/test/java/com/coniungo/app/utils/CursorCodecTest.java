@@ -0,0 +1,87 @@
+package com.coniungo.app.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class CursorCodecTest {
+
+    @Test
+    void roundTripsIds() {
+        for (long id : new long[]{1, 42, Long.MAX_VALUE}) {
+            assertEquals(id, CursorCodec.decodeId(CursorCodec.encodeId(id)));
+        }
+    }
+
+    @Test
+    void roundTripsParts() {
+        String cursor = CursorCodec.encode("email", "ann@example.com", "7");
+
+        assertArrayEquals(new String[]{"email", "ann@example.com", "7"}, CursorCodec.decode(cursor, 3));
+    }
+
+    @Test
+    void roundTripsPartsContainingTheSeparator() {
+        String[] parts = {"username", "ann\nsmith", "\n", ""};
+
+        assertArrayEquals(parts, CursorCodec.decode(CursorCodec.encode(parts), 4));
+    }
+
+    @Test
+    void acceptsVersionOneTokens() {
+        assertEquals(42, CursorCodec.decodeId(token("v1\n42")));
+        assertArrayEquals(new String[]{"email", "ann@example.com", "7"},
+                CursorCodec.decode(token("v1\nemail\nann@example.com\n7"), 3));
+    }
+
+    @Test
+    void producesUrlSafeTokens() {
+        String cursor = CursorCodec.encode("??>>", "ü", "");
+
+        assertFalse(cursor.matches(".*[+/=].*"), cursor);
+    }
+
+    @Test
+    void rejectsTokensThatAreNotBase64() {
+        assertThrows(InvalidCursorException.class, () -> CursorCodec.decodeId("not a cursor!"));
+    }
+
+    @Test
+    void rejectsTokensWithTheWrongNumberOfParts() {
+        String cursor = CursorCodec.encode("email", "ann@example.com", "7");
+
+        assertThrows(InvalidCursorException.class, () -> CursorCodec.decode(cursor, 2));
+        assertThrows(InvalidCursorException.class, () -> CursorCodec.decodeId(cursor));
+    }
+
+    @Test
+    void rejectsTamperedTokens() {
+        String cursor = CursorCodec.encodeId(42);
+
+        // A client editing the decoded position
+        assertThrows(InvalidCursorException.class, () -> CursorCodec.decodeId(token("v2\n" + encode("4x2"))));
+        assertThrows(InvalidCursorException.class, () -> CursorCodec.decodeId(token("v2\n#42")));
+        assertThrows(InvalidCursorException.class, () -> CursorCodec.decodeId(cursor.substring(0, cursor.length() - 2)));
+        assertThrows(InvalidCursorException.class, () -> CursorCodec.decodeId(""));
+    }
+
+    @Test
+    void rejectsOtherVersions() {
+        assertThrows(InvalidCursorException.class, () -> CursorCodec.decodeId(token("v0\n42")));
+        assertThrows(InvalidCursorException.class, () -> CursorCodec.decodeId(token("v3\n" + encode("42"))));
+    }
+
+    private static String token(String raw) {
+        return encode(raw);
+    }
+
+    private static String encode(String value) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+}